@@ -0,0 +1,46 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.State;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк получения страницы бронирований для вещей владельца по каждому значению State
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private State state;
+
+    private BookingService bookingService;
+    private Integer ownerId;
+
+    @Setup
+    public void setUp(ShareItServerState server) {
+        bookingService = server.getBean(BookingService.class);
+        ownerId = server.getOwnerId();
+    }
+
+    @Benchmark
+    public Page<BookingDto> findAllBookingsForOwner() {
+        return bookingService.findAllBookingsForOwner(ownerId, state, 0, ShareItServerState.PAGE_SIZE);
+    }
+}
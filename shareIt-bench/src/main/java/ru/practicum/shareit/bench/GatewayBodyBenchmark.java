@@ -0,0 +1,68 @@
+package ru.practicum.shareit.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemShort;
+import ru.practicum.shareit.user.dto.UserShort;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение обработки тела ответа сервера в шлюзе: разбор JSON в дерево объектов с повторной сериализацией
+ * (как было в BaseClient до передачи тела в байтах) и передача байтов без разбора.
+ * Запускать с профилировщиком gc, чтобы сравнить объём выделяемой памяти на операцию.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayBodyBenchmark {
+    private ObjectMapper objectMapper;
+    private byte[] serverResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> page = new ArrayList<>();
+        for (long i = 1; i <= ShareItServerState.PAGE_SIZE; i++) {
+            page.add(new BookingDto(i, now.plusDays(i), now.plusDays(i + 1),
+                    ItemShort.builder().id(i).name("Вещь " + i).build(),
+                    new UserShort((int) i), BookingStatus.APPROVED));
+        }
+        serverResponse = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] parseAndSerialize() throws IOException {
+        Object body = objectMapper.readValue(serverResponse, Object.class);
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] passThrough() {
+        return Arrays.copyOf(serverResponse, serverResponse.length);
+    }
+}
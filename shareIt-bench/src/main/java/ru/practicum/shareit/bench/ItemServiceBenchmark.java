@@ -0,0 +1,46 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки поиска последнего и следующего бронирования вещи
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    private ItemService itemService;
+    private Long itemId;
+
+    @Setup
+    public void setUp(ShareItServerState server) {
+        itemService = server.getBean(ItemService.class);
+        itemId = server.getItem().getId();
+    }
+
+    @Benchmark
+    public BookingDtoForOwner findLastBookingsOfItem() {
+        return itemService.findLastBookingsOfItem(itemId);
+    }
+
+    @Benchmark
+    public BookingDtoForOwner findNextBookingsOfItem() {
+        return itemService.findNextBookingsOfItem(itemId);
+    }
+}
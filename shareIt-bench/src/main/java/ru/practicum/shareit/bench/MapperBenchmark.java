@@ -0,0 +1,55 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки преобразования вещей и бронирований в DTO.
+ * toItemDtoForOwner выполняет три запроса к БД на вещь, toItemDtosForOwner - три запроса на страницу вещей.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private ItemMapper itemMapper;
+    private BookingMapper bookingMapper;
+
+    @Setup
+    public void setUp(ShareItServerState server) {
+        itemMapper = server.getBean(ItemMapper.class);
+        bookingMapper = server.getBean(BookingMapper.class);
+    }
+
+    @Benchmark
+    public ItemDto toItemDtoForOwner(ShareItServerState server) {
+        return itemMapper.toItemDtoForOwner(server.getItem());
+    }
+
+    @Benchmark
+    public List<ItemDto> toItemDtosForOwnerPage(ShareItServerState server) {
+        return itemMapper.toItemDtosForOwner(server.getOwnerItemsPage());
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto(ShareItServerState server) {
+        return bookingMapper.toBookingDto(server.getBooking());
+    }
+}
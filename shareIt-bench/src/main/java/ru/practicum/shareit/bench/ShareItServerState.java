@@ -0,0 +1,112 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.entity.Comment;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Контекст сервера на H2 в памяти, общий для всех бенчмарков одного запуска (форка).
+ * Данные: один владелец с ITEMS_COUNT вещами, у каждой вещи прошлые, текущие и будущие бронирования
+ * с разными статусами и несколько отзывов.
+ */
+@State(Scope.Benchmark)
+public class ShareItServerState {
+    public static final int ITEMS_COUNT = 100;
+    public static final int PAGE_SIZE = 10;
+    private static final int BOOKERS_COUNT = 20;
+    private static final int BOOKINGS_PER_ITEM = 30;
+    private static final int COMMENTS_PER_ITEM = 5;
+    private static final BookingStatus[] STATUSES = {
+            BookingStatus.APPROVED, BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED};
+
+    private ConfigurableApplicationContext context;
+    private User owner;
+    private List<Item> ownerItemsPage;
+    private List<Booking> bookings;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("bench")
+                .run();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Integer getOwnerId() {
+        return owner.getId().intValue();
+    }
+
+    public List<Item> getOwnerItemsPage() {
+        return ownerItemsPage;
+    }
+
+    public Item getItem() {
+        return ownerItemsPage.get(0);
+    }
+
+    public Booking getBooking() {
+        return bookings.get(0);
+    }
+
+    private void seed() {
+        UserRepository userRepository = getBean(UserRepository.class);
+        ItemRepository itemRepository = getBean(ItemRepository.class);
+        BookingRepository bookingRepository = getBean(BookingRepository.class);
+        CommentRepository commentRepository = getBean(CommentRepository.class);
+
+        owner = userRepository.save(new User(null, "Владелец", "owner@bench.ru"));
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS_COUNT; i++) {
+            bookers.add(userRepository.save(new User(null, "Арендатор " + i, "booker" + i + "@bench.ru")));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> newBookings = new ArrayList<>();
+        List<Comment> newComments = new ArrayList<>();
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            Item item = itemRepository.save(new Item(null, "Вещь " + i, "Описание вещи " + i, true, owner, null));
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                // треть бронирований в прошлом, треть текущих, треть в будущем
+                LocalDateTime start = now.plusDays((j % 3 - 1) * (j + 2L)).minusHours(1);
+                newBookings.add(new Booking(null, start, start.plusDays(1).plusMinutes(j), item,
+                        bookers.get(j % BOOKERS_COUNT), STATUSES[j % STATUSES.length]));
+            }
+            for (int j = 0; j < COMMENTS_PER_ITEM; j++) {
+                newComments.add(new Comment(null, "Отзыв " + j, item, bookers.get(j), now.minusDays(j)));
+            }
+        }
+        bookings = bookingRepository.saveAll(newBookings);
+        commentRepository.saveAll(newComments);
+
+        ownerItemsPage = itemRepository.findByOwnerIdOrderByIdAsc(owner.getId(), PageRequest.of(0, PAGE_SIZE))
+                .getContent();
+    }
+}
@@ -1,16 +1,16 @@
 package ru.practicum.shareit.booking.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.common.client.BaseClient;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Класс-клиент по бронированиям Booking
@@ -20,16 +20,13 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, CloseableHttpAsyncClient client,
+                         ObjectMapper objectMapper) {
+        super(serverUrl + API_PREFIX, client, objectMapper);
     }
 
-    public ResponseEntity<Object> findAllBookingsForBooker(Integer bookerId, String state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<byte[]>> findAllBookingsForBooker(Integer bookerId, String state,
+                                                                              Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
@@ -38,7 +35,8 @@ public class BookingClient extends BaseClient {
         return get("/?state={state}&from={from}&size={size}", Long.valueOf(bookerId), parameters);
     }
 
-    public ResponseEntity<Object> findAllBookingsForOwner(Integer ownerId, String state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<byte[]>> findAllBookingsForOwner(Integer ownerId, String state,
+                                                                             Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
@@ -47,16 +45,37 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", Long.valueOf(ownerId), parameters);
     }
 
-    public ResponseEntity<Object> findBookingById(long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<byte[]>> findBookingsForBookerByCursor(Integer bookerId, String state,
+                                                                                  String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/?state={state}&cursor={cursor}&size={size}", Long.valueOf(bookerId), parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> findBookingsForOwnerByCursor(Integer ownerId, String state,
+                                                                                 String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", Long.valueOf(ownerId), parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> findBookingById(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> createBooking(long userId, BookingRequestDto bookingRequestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createBooking(long userId, BookingRequestDto bookingRequestDto) {
         return post("", userId, bookingRequestDto);
     }
 
-    public ResponseEntity<Object> updateOrApproveBooking(Integer userId, Long bookingId,
-                                                         BookingRequestDto bookingRequestDto, Boolean approved) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateOrApproveBooking(Integer userId, Long bookingId,
+                                                                           BookingRequestDto bookingRequestDto,
+                                                                           Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
@@ -64,7 +83,7 @@ public class BookingClient extends BaseClient {
                 parameters, bookingRequestDto);
     }
 
-    public ResponseEntity<Object> deleteBooking(long bookingId) {
+    public CompletableFuture<ResponseEntity<byte[]>> deleteBooking(long bookingId) {
         return delete("/" + bookingId);
     }
 }
@@ -18,6 +18,7 @@ import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Класс-контроллер по бронированиям Booking, ответственный за валидацию входящих данных
@@ -35,7 +36,7 @@ public class BookingController {
      * метод валидации входящих данных перед получением списка бронирований текущего пользователя
      */
     @GetMapping
-    public ResponseEntity<Object> findAllBookings(
+    public CompletableFuture<ResponseEntity<byte[]>> findAllBookings(
             @RequestHeader("X-Sharer-User-Id") Integer bookerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @RequestParam(value = "from", required = false, defaultValue = "0") Integer from,
@@ -51,7 +52,7 @@ public class BookingController {
      * метод валидации входящих данных перед получением списка бронирований для всех вещей текущего пользователя
      */
     @GetMapping("/owner")
-    public ResponseEntity<Object> findAllBookingsForOwner(
+    public CompletableFuture<ResponseEntity<byte[]>> findAllBookingsForOwner(
             @Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer ownerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
             @PositiveOrZero @NotNull @RequestParam(value = "from", required = false, defaultValue = "0") Integer from,
@@ -63,12 +64,46 @@ public class BookingController {
         }
     }
 
+    /**
+     * метод валидации входящих данных перед получением списка бронирований текущего пользователя по курсору
+     */
+    @GetMapping(params = "cursor")
+    public CompletableFuture<ResponseEntity<byte[]>> findAllBookingsByCursor(
+            @RequestHeader("X-Sharer-User-Id") Integer bookerId,
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(value = "cursor") String cursor,
+            @Positive @RequestParam(value = "size", required = false, defaultValue = "10") Integer size) {
+        if (Arrays.stream(State.values()).anyMatch(x -> Objects.equals(String.valueOf(x), state))) {
+            return bookingClient.findBookingsForBookerByCursor(bookerId, state, cursor, size);
+        } else {
+            throw new RequestParamException("Unknown state: " + state);
+        }
+    }
+
+    /**
+     * метод валидации входящих данных перед получением списка бронирований для всех вещей текущего пользователя
+     * по курсору
+     */
+    @GetMapping(value = "/owner", params = "cursor")
+    public CompletableFuture<ResponseEntity<byte[]>> findAllBookingsForOwnerByCursor(
+            @Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer ownerId,
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(value = "cursor") String cursor,
+            @Positive @RequestParam(value = "size", required = false, defaultValue = "10") Integer size) {
+        if (Arrays.stream(State.values()).anyMatch(x -> Objects.equals(String.valueOf(x), state))) {
+            return bookingClient.findBookingsForOwnerByCursor(ownerId, state, cursor, size);
+        } else {
+            throw new RequestParamException("Unknown state: " + state);
+        }
+    }
+
     /**
      * метод валидации входящих данных перед получением данных о заказе по его ID
      */
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> findBookingById(@Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                  @Positive @NotNull @PathVariable("bookingId") Long bookingId) {
+    public CompletableFuture<ResponseEntity<byte[]>> findBookingById(
+            @Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer userId,
+            @Positive @NotNull @PathVariable("bookingId") Long bookingId) {
         return bookingClient.findBookingById(userId, bookingId);
     }
 
@@ -76,7 +111,7 @@ public class BookingController {
      * метод валидации входящих данных перед созданием нового заказа
      */
     @PostMapping
-    public ResponseEntity<Object> createBooking(
+    public CompletableFuture<ResponseEntity<byte[]>> createBooking(
             @Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer userId,
             @Valid @RequestBody BookingRequestDto bookingRequestDto) {
         if (bookingRequestDto.getId() != null)
@@ -88,7 +123,7 @@ public class BookingController {
      * метод валидации входящих данных перед обновлением данных заказа или перед одобрением бронирования владельцем вещи
      */
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateOrApproveBooking(
+    public CompletableFuture<ResponseEntity<byte[]>> updateOrApproveBooking(
             @Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer userId,
             @Positive @NotNull @PathVariable("bookingId") Long bookingId,
             @RequestBody(required = false) BookingRequestDto bookingRequestDto,
@@ -100,7 +135,7 @@ public class BookingController {
      * метод валидации входящих данных перед удалением данных о заказе
      */
     @DeleteMapping("/{id}")
-    public void deleteBooking(@Positive @NotNull @PathVariable("id") Long id) {
-        bookingClient.deleteBooking(id);
+    public CompletableFuture<Void> deleteBooking(@Positive @NotNull @PathVariable("id") Long id) {
+        return bookingClient.deleteBooking(id).thenAccept(response -> { });
     }
 }
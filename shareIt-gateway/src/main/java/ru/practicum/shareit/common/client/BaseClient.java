@@ -1,115 +1,183 @@
 package ru.practicum.shareit.common.client;
 
-import org.springframework.http.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.util.EntityUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
 
-import java.util.List;
+import java.io.IOException;
+import java.net.URI;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Базовый клиент шлюза. Запросы к серверу отправляются неблокирующим HTTP-клиентом, ответ возвращается
+ * в виде CompletableFuture, поэтому поток Tomcat не ждёт ответа сервера.
+ * Тело ответа сервера передаётся клиенту как есть, в байтах, вместе со статусом и заголовками (в том числе
+ * Content-Type), без разбора JSON.
+ */
 public class BaseClient {
-    protected final RestTemplate rest;
+    /**
+     * заголовки соединения между шлюзом и сервером; длину тела Tomcat выставляет сам
+     */
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(), "keep-alive", HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase());
+
+    protected final CloseableHttpAsyncClient client;
+    private final ObjectMapper objectMapper;
+    private final UriBuilderFactory uriBuilderFactory;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    public BaseClient(String baseUrl, CloseableHttpAsyncClient client, ObjectMapper objectMapper) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(baseUrl);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<byte[]>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<byte[]>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<byte[]>> get(String path, Long userId,
+                                                            @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, Long userId,
+                                                                 @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> put(String path, long userId,
+                                                                @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, Long userId,
+                                                                  @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(String path, Long userId,
+                                                               @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> CompletableFuture<ResponseEntity<byte[]>> makeAndSendRequest(HttpMethod method, String path,
+                                                                             Long userId,
+                                                                             @Nullable Map<String, Object> parameters,
+                                                                             @Nullable T body) {
+        HttpUriRequest request;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            request = createRequest(method, path, userId, parameters, body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+
+        CompletableFuture<ResponseEntity<byte[]>> shareitServerResponse = new CompletableFuture<>();
+        client.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(HttpResponse response) {
+                try {
+                    shareitServerResponse.complete(prepareGatewayResponse(response));
+                } catch (IOException | RuntimeException e) {
+                    shareitServerResponse.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                shareitServerResponse.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                shareitServerResponse.cancel(false);
+            }
+        });
+        return shareitServerResponse;
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+    private <T> HttpUriRequest createRequest(HttpMethod method, String path, Long userId,
+                                             @Nullable Map<String, Object> parameters, @Nullable T body)
+            throws JsonProcessingException {
+        URI uri = parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+        RequestBuilder requestBuilder = RequestBuilder.create(method.name())
+                .setUri(uri)
+                .setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
         if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            requestBuilder.setHeader("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        if (body != null) {
+            requestBuilder.setEntity(new ByteArrayEntity(objectMapper.writeValueAsBytes(body),
+                    ContentType.APPLICATION_JSON));
         }
-        return headers;
+        return requestBuilder.build();
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static ResponseEntity<byte[]> prepareGatewayResponse(HttpResponse response) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : response.getAllHeaders()) {
+            if (!SKIPPED_HEADERS.contains(header.getName().toLowerCase())) {
+                headers.add(header.getName(), header.getValue());
+            }
         }
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusLine().getStatusCode())
+                .headers(headers);
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (response.getEntity() != null) {
+            return responseBuilder.body(EntityUtils.toByteArray(response.getEntity()));
         }
 
         return responseBuilder.build();
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.common.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация неблокирующего HTTP-клиента и пула соединений, общих для всех клиентов шлюза (BookingClient,
+ * ItemClient, UserClient, RequestClient)
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    /**
+     * пул закрывает сам HTTP-клиент, поэтому у бина нет метода уничтожения
+     */
+    @Bean(destroyMethod = "")
+    public MeteredConnectionManager shareItServerConnectionManager(HttpClientProperties properties,
+                                                                   MeterRegistry meterRegistry)
+            throws IOReactorException {
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSoTimeout((int) properties.getSocketTimeout().toMillis())
+                .setSoKeepAlive(true)
+                .setTcpNoDelay(true)
+                .build();
+        MeteredConnectionManager connectionManager =
+                new MeteredConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig), meterRegistry);
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        return connectionManager;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public IdleConnectionEvictor idleConnectionEvictor(MeteredConnectionManager connectionManager,
+                                                       HttpClientProperties properties) {
+        return new IdleConnectionEvictor(connectionManager, properties.getIdleTimeout(),
+                properties.getEvictionInterval());
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient shareItServerHttpClient(MeteredConnectionManager connectionManager,
+                                                            HttpClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getSocketTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .build();
+        long defaultKeepAlive = properties.getKeepAlive().toMillis();
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? keepAlive : defaultKeepAlive;
+                })
+                .build();
+        client.start();
+        return client;
+    }
+}
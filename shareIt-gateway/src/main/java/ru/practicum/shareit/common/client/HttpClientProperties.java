@@ -0,0 +1,48 @@
+package ru.practicum.shareit.common.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула соединений между шлюзом и сервером (shareit-server.http-client.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+    /**
+     * максимальное число соединений в пуле
+     */
+    private int maxTotal = 200;
+    /**
+     * максимальное число соединений с одним адресом (у шлюза он один - сервер)
+     */
+    private int maxPerRoute = 200;
+    /**
+     * время ожидания установки TCP-соединения
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /**
+     * время ожидания данных от сервера
+     */
+    private Duration socketTimeout = Duration.ofSeconds(30);
+    /**
+     * время ожидания свободного соединения в пуле, по истечении которого запрос завершается ошибкой
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+    /**
+     * время жизни соединения без заголовка Keep-Alive в ответе сервера
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+    /**
+     * соединения, простаивающие дольше этого времени, закрываются
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    /**
+     * период проверки пула на просроченные и простаивающие соединения
+     */
+    private Duration evictionInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.common.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновая задача, закрывающая в пуле просроченные (по Keep-Alive) и долго простаивающие соединения,
+ * пока сервер не закрыл их со своей стороны
+ */
+@Slf4j
+public class IdleConnectionEvictor {
+    private final NHttpClientConnectionManager connectionManager;
+    private final Duration idleTimeout;
+    private final Duration evictionInterval;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "http-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdleConnectionEvictor(NHttpClientConnectionManager connectionManager, Duration idleTimeout,
+                                 Duration evictionInterval) {
+        this.connectionManager = connectionManager;
+        this.idleTimeout = idleTimeout;
+        this.evictionInterval = evictionInterval;
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::evict, evictionInterval.toMillis(), evictionInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void evict() {
+        try {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось закрыть простаивающие соединения с сервером", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.common.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Пул соединений с сервером, публикующий метрики:
+ * shareit.gateway.http.pool.lease - время получения соединения из пула (вместе с открытием нового соединения),
+ * shareit.gateway.http.pool.exhausted - число запросов, не дождавшихся свободного соединения,
+ * shareit.gateway.http.pool.leased/pending/available/max - текущее состояние пула
+ */
+public class MeteredConnectionManager extends PoolingNHttpClientConnectionManager {
+    private final Timer leaseTimer;
+    private final Counter exhaustedCounter;
+
+    public MeteredConnectionManager(ConnectingIOReactor ioReactor, MeterRegistry meterRegistry) {
+        super(ioReactor);
+        this.leaseTimer = Timer.builder("shareit.gateway.http.pool.lease")
+                .description("Время получения соединения с сервером из пула")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("shareit.gateway.http.pool.exhausted")
+                .description("Запросы, не дождавшиеся свободного соединения с сервером")
+                .register(meterRegistry);
+        registerGauge(meterRegistry, "leased", manager -> manager.getTotalStats().getLeased());
+        registerGauge(meterRegistry, "pending", manager -> manager.getTotalStats().getPending());
+        registerGauge(meterRegistry, "available", manager -> manager.getTotalStats().getAvailable());
+        registerGauge(meterRegistry, "max", manager -> manager.getTotalStats().getMax());
+    }
+
+    @Override
+    public Future<NHttpClientConnection> requestConnection(HttpRoute route, Object state, long connectTimeout,
+                                                           long leaseTimeout, TimeUnit timeUnit,
+                                                           FutureCallback<NHttpClientConnection> callback) {
+        long start = System.nanoTime();
+        return super.requestConnection(route, state, connectTimeout, leaseTimeout, timeUnit,
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(NHttpClientConnection connection) {
+                        leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (callback != null) {
+                            callback.completed(connection);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        if (e instanceof TimeoutException) {
+                            exhaustedCounter.increment();
+                        }
+                        if (callback != null) {
+                            callback.failed(e);
+                        }
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        if (callback != null) {
+                            callback.cancelled();
+                        }
+                    }
+                });
+    }
+
+    private void registerGauge(MeterRegistry meterRegistry, String name,
+                               ToDoubleFunction<MeteredConnectionManager> value) {
+        Gauge.builder("shareit.gateway.http.pool." + name, this, value)
+                .description("Соединения с сервером в пуле: " + name)
+                .register(meterRegistry);
+    }
+}
@@ -16,6 +16,7 @@ import javax.validation.ConstraintViolationException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeoutException;
 
 @RestControllerAdvice(value = "ru.practicum.shareit")
 @Slf4j
@@ -112,6 +113,13 @@ public class ErrorHandler {
         return new ErrorResponse(String.format("Ошибка валидации данных в параметрах запроса: %s", message));
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleTimeoutException(final TimeoutException e) {
+        log.error("Нет свободного соединения с сервером: {}", e.getMessage());
+        return new ErrorResponse("Сервер перегружен, повторите запрос позже");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
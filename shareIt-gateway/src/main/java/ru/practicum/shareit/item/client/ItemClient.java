@@ -1,17 +1,17 @@
 package ru.practicum.shareit.item.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.common.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Класс-клиент по Item
@@ -21,16 +21,12 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, CloseableHttpAsyncClient client,
+                      ObjectMapper objectMapper) {
+        super(serverUrl + API_PREFIX, client, objectMapper);
     }
 
-    public ResponseEntity<Object> findAllItems(Integer userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<byte[]>> findAllItems(Integer userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -38,11 +34,11 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", Long.valueOf(userId), parameters);
     }
 
-    public ResponseEntity<Object> findItemById(Integer userId, Long itemId) {
+    public CompletableFuture<ResponseEntity<byte[]>> findItemById(Integer userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> findItem(Integer userId, String text, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<byte[]>> findItem(Integer userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -51,19 +47,20 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", Long.valueOf(userId), parameters);
     }
 
-    public ResponseEntity<Object> createItem(Integer userId, ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createItem(Integer userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> updateItem(Integer id, Long itemId, ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateItem(Integer id, Long itemId, ItemRequestDto itemRequestDto) {
         return patch("/" + itemId, id, itemRequestDto);
     }
 
-    public ResponseEntity<Object> deleteItem(Long itemId) {
+    public CompletableFuture<ResponseEntity<byte[]>> deleteItem(Long itemId) {
         return delete("/" + itemId);
     }
 
-    public ResponseEntity<Object> createComment(Integer userId, Long itemId, CommentRequestDto commentRequestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createComment(Integer userId, Long itemId,
+                                                                   CommentRequestDto commentRequestDto) {
         return post("/" + itemId + "/comment", userId, commentRequestDto);
     }
 }
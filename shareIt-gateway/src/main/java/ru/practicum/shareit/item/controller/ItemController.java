@@ -13,6 +13,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Класс-контроллер по Item, ответственный за валидацию входящих данных
@@ -29,7 +30,7 @@ public class ItemController {
      * метод валидации входящих данных перед получением списка всех вещей определенного пользователя
      */
     @GetMapping
-    public ResponseEntity<Object> findAllItems(
+    public CompletableFuture<ResponseEntity<byte[]>> findAllItems(
             @Positive @NotNull @RequestHeader("X-Sharer-User-Id")  Integer userId,
             @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", required = false, defaultValue = "10") Integer size) {
@@ -40,7 +41,7 @@ public class ItemController {
      * метод валидации входящих данных перед получением данных о вещи по её ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Object> findItemById(
+    public CompletableFuture<ResponseEntity<byte[]>> findItemById(
             @RequestHeader(value = "X-Sharer-User-Id", required = false) Integer userId,
             @Positive @NotNull @PathVariable("id") Long itemId) {
         return itemClient.findItemById(userId, itemId);
@@ -50,7 +51,7 @@ public class ItemController {
      * метод валидации входящих данных перед поиском вещи по наименованию и описанию
      */
     @GetMapping("/search")
-    public ResponseEntity<Object> findItem(
+    public CompletableFuture<ResponseEntity<byte[]>> findItem(
             @Positive @NotNull @RequestHeader ("X-Sharer-User-Id") Integer userId,
             @NotNull @RequestParam (value = "text") String text,
             @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0") Integer from,
@@ -62,7 +63,7 @@ public class ItemController {
      * метод валидации входящих данных перед созданием новой вещи
      */
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Integer userId,
+    public CompletableFuture<ResponseEntity<byte[]>> createItem(@RequestHeader("X-Sharer-User-Id") Integer userId,
                               @Valid @RequestBody ItemRequestDto itemRequestDto) {
         return itemClient.createItem(userId, itemRequestDto);
     }
@@ -71,9 +72,10 @@ public class ItemController {
      * метод валидации входящих данных перед обновлением данных о вещи
      */
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") @Positive @NotNull Integer userId,
-                              @PathVariable("id") @Positive @NotNull Long itemId,
-                              @RequestBody ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateItem(
+            @RequestHeader("X-Sharer-User-Id") @Positive @NotNull Integer userId,
+            @PathVariable("id") @Positive @NotNull Long itemId,
+            @RequestBody ItemRequestDto itemRequestDto) {
         return itemClient.updateItem(userId, itemId, itemRequestDto);
     }
 
@@ -81,17 +83,18 @@ public class ItemController {
      * метод валидации входящих данных перед удалением данных о вещи
      */
     @DeleteMapping("/{id}")
-    public void deleteItem(@PathVariable("id") @Positive @NotNull Long id) {
-        itemClient.deleteItem(id);
+    public CompletableFuture<Void> deleteItem(@PathVariable("id") @Positive @NotNull Long id) {
+        return itemClient.deleteItem(id).thenAccept(response -> { });
     }
 
     /**
      * метод валидации входящих данных перед добавлением комментария о вещи
      */
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") @Positive @NotNull Integer userId,
-                                    @PathVariable("itemId") @Positive @NotNull Long itemId,
-                                    @Valid @RequestBody CommentRequestDto commentRequestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createComment(
+            @RequestHeader("X-Sharer-User-Id") @Positive @NotNull Integer userId,
+            @PathVariable("itemId") @Positive @NotNull Long itemId,
+            @Valid @RequestBody CommentRequestDto commentRequestDto) {
         return itemClient.createComment(userId, itemId, commentRequestDto);
     }
 }
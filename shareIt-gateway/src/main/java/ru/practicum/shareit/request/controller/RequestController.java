@@ -10,6 +10,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Класс-контроллер по запросам на вещь Request, ответственный за валидацию входящих данных
@@ -25,7 +26,7 @@ public class RequestController {
      * вместе с данными об ответах на них.
      */
     @GetMapping
-    public ResponseEntity<Object>  findAllRequestsByUserId(
+    public CompletableFuture<ResponseEntity<byte[]>>  findAllRequestsByUserId(
             @Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer userId) {
         return requestClient.findAllRequestsByUserId(userId);
     }
@@ -34,8 +35,9 @@ public class RequestController {
      * метод валидации входящих данных перед получением данных о запросе по его ID
      */
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> findRequestById(@Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer userId,
-                                      @Positive @NotNull @PathVariable("requestId") Long requestId) {
+    public CompletableFuture<ResponseEntity<byte[]>> findRequestById(
+            @Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer userId,
+            @Positive @NotNull @PathVariable("requestId") Long requestId) {
         return requestClient.findRequestById(userId, requestId);
     }
 
@@ -43,7 +45,7 @@ public class RequestController {
      * метод валидации входящих данных перед получением списка запросов, созданных другими пользователями (Pageable).
      */
     @GetMapping("/all")
-    public ResponseEntity<Object> findAllRequestsPageAble(
+    public CompletableFuture<ResponseEntity<byte[]>> findAllRequestsPageAble(
             @Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer userId,
             @PositiveOrZero @RequestParam(value = "from", required = false, defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", required = false, defaultValue = "1") Integer size) {
@@ -55,8 +57,9 @@ public class RequestController {
      * метод валидации входящих данных перед созданием нового запроса
      */
     @PostMapping
-    public ResponseEntity<Object> createRequest(@Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                @Valid @RequestBody IncomingRequestDto incomingRequestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createRequest(
+            @Positive @NotNull @RequestHeader("X-Sharer-User-Id") Integer userId,
+            @Valid @RequestBody IncomingRequestDto incomingRequestDto) {
         return requestClient.createRequest(userId, incomingRequestDto);
     }
 }
@@ -1,15 +1,16 @@
 package ru.practicum.shareit.user.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.common.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Класс-клиент для User
  */
@@ -18,32 +19,28 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, CloseableHttpAsyncClient client,
+                      ObjectMapper objectMapper) {
+        super(serverUrl + API_PREFIX, client, objectMapper);
     }
 
-    public ResponseEntity<Object> findAllUsers() {
+    public CompletableFuture<ResponseEntity<byte[]>> findAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> findUserById(Integer id) {
+    public CompletableFuture<ResponseEntity<byte[]>> findUserById(Integer id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> createUser(UserRequestDto userRequestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createUser(UserRequestDto userRequestDto) {
         return post("", userRequestDto);
     }
 
-    public ResponseEntity<Object> updateUser(UserRequestDto userRequestDto, Integer id) {
+    public CompletableFuture<ResponseEntity<byte[]>> updateUser(UserRequestDto userRequestDto, Integer id) {
         return patch("/" + id, userRequestDto);
     }
 
-    public ResponseEntity<Object> deleteUser(Integer id) {
+    public CompletableFuture<ResponseEntity<byte[]>> deleteUser(Integer id) {
         return delete("/" + id);
     }
 }
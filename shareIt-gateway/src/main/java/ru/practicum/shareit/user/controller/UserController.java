@@ -11,6 +11,7 @@ import ru.practicum.shareit.user.dto.UserRequestDto;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Класс-контроллер по User, ответственный за валидацию входящих данных
@@ -27,7 +28,7 @@ public class UserController {
      * метод валидации перед получением списка всех пользователей
      */
     @GetMapping
-    public ResponseEntity<Object> findAllUsers() {
+    public CompletableFuture<ResponseEntity<byte[]>> findAllUsers() {
         return userClient.findAllUsers();
     }
 
@@ -35,7 +36,7 @@ public class UserController {
      * метод валидации перед получением данных о пользователе по его ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Object> findUserById(@PathVariable("id") @Positive @NotNull Integer id) {
+    public CompletableFuture<ResponseEntity<byte[]>> findUserById(@PathVariable("id") @Positive @NotNull Integer id) {
         return userClient.findUserById(id);
     }
 
@@ -43,7 +44,7 @@ public class UserController {
      * метод валидации данных перед созданием нового пользователя
      */
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserRequestDto userRequestDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createUser(@Valid @RequestBody UserRequestDto userRequestDto) {
         log.info("Валидация входящих данных прошла успешно");
         return userClient.createUser(userRequestDto);
     }
@@ -52,7 +53,7 @@ public class UserController {
      * метод валидации данных перед обновлением данных о пользователе
      */
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@RequestBody UserRequestDto userRequestDto,
+    public CompletableFuture<ResponseEntity<byte[]>> updateUser(@RequestBody UserRequestDto userRequestDto,
                               @PathVariable("id") @Positive @NotNull Integer id) {
         return userClient.updateUser(userRequestDto, id);
     }
@@ -61,7 +62,7 @@ public class UserController {
      * метод валидации данных перед удалением данных о пользователе
      */
     @DeleteMapping("/{id}")
-    public void deleteUser(@PathVariable("id") @Positive @NotNull Integer id) {
-        userClient.deleteUser(id);
+    public CompletableFuture<Void> deleteUser(@PathVariable("id") @Positive @NotNull Integer id) {
+        return userClient.deleteUser(id).thenAccept(response -> { });
     }
 }
\ No newline at end of file
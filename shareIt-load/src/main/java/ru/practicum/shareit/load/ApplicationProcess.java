@@ -0,0 +1,111 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Приложение ShareIt (сервер или шлюз), запущенное отдельным процессом JVM из исполняемого jar.
+ * Вывод процесса пишется в файл &lt;name&gt;.log каталога отчёта.
+ */
+@Slf4j
+public class ApplicationProcess implements AutoCloseable {
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+
+    private final String name;
+    private final LoadProperties.Application settings;
+    private final Path logFile;
+    private Process process;
+
+    public ApplicationProcess(String name, LoadProperties.Application settings, Path reportDir) {
+        this.name = name;
+        this.settings = settings;
+        this.logFile = reportDir.resolve(name + ".log");
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + settings.getPort();
+    }
+
+    public void start(Duration startupTimeout) {
+        if (!Files.isRegularFile(settings.getJar())) {
+            throw new IllegalStateException("Не найден jar " + name + ": " + settings.getJar().toAbsolutePath()
+                    + ". Соберите проект: mvn package -DskipTests");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(settings.getJvmArgs());
+        command.add("-jar");
+        command.add(settings.getJar().toString());
+        command.add("--server.port=" + settings.getPort());
+        command.addAll(settings.getArgs());
+        try {
+            process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(logFile.toFile())
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить " + name, e);
+        }
+        log.info("Запущен {} (pid {}), журнал: {}", name, process.pid(), logFile);
+        awaitReadiness(startupTimeout);
+    }
+
+    @Override
+    public void close() {
+        if (process == null || !process.isAlive()) {
+            return;
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Остановлен {}", name);
+    }
+
+    private void awaitReadiness(Duration startupTimeout) {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(getUrl() + settings.getReadinessPath()))
+                .timeout(POLL_INTERVAL)
+                .build();
+        long deadline = System.nanoTime() + startupTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " завершился при запуске, см. " + logFile);
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // приложение ещё не начало принимать соединения
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ожидание запуска " + name + " прервано", e);
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ожидание запуска " + name + " прервано", e);
+            }
+        }
+        throw new IllegalStateException(name + " не запустился за " + startupTimeout.toSeconds() + " с, см. " + logFile);
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.load.SeededData.SeededItem;
+
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Заполнение сервера тестовыми данными через API шлюза, как это делали бы пользователи:
+ * пользователи, запросы, вещи, бронирования в прошлом, текущие и будущие с разными статусами, отзывы.
+ * Бронирования одной вещи не пересекаются по времени.
+ */
+@Slf4j
+public class DataSeeder {
+    static final List<String> SEARCH_WORDS = List.of(
+            "дрель", "пила", "палатка", "велосипед", "самокат", "лодка", "проектор", "гитара");
+    private static final long PAST_BOOKING_MILLIS = 300;
+    private static final long LEAD_MILLIS = 1_000;
+
+    private final GatewayClient client;
+    private final LoadProperties.Seed seed;
+
+    public DataSeeder(GatewayClient client, LoadProperties.Seed seed) {
+        this.client = client;
+        this.seed = seed;
+    }
+
+    public SeededData seed() {
+        List<Integer> userIds = createUsers();
+        createRequests(userIds);
+        List<SeededItem> items = createItems(userIds);
+
+        ExecutorService executor = Executors.newFixedThreadPool(seed.getParallelism());
+        try {
+            List<CompletableFuture<LocalDateTime>> pastBookingsEnds = new ArrayList<>();
+            for (SeededItem item : items) {
+                pastBookingsEnds.add(CompletableFuture.supplyAsync(() -> createBookings(item, userIds), executor));
+            }
+            LocalDateTime lastPastEnd = pastBookingsEnds.stream()
+                    .map(CompletableFuture::join)
+                    .max(LocalDateTime::compareTo)
+                    .orElseGet(LocalDateTime::now);
+            waitUntil(lastPastEnd);
+            CompletableFuture.allOf(items.stream()
+                    .map(item -> CompletableFuture.runAsync(() -> createComments(item, userIds), executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Созданы {} пользователей, {} вещей, {} бронирований, {} отзывов", userIds.size(), items.size(),
+                items.size() * (seed.getPastBookingsPerItem() + 1 + seed.getFutureBookingsPerItem()),
+                items.size() * seed.getPastBookingsPerItem());
+        LocalDateTime bookingHorizon = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
+                .plusDays(seed.getFutureBookingsPerItem() + 3L);
+        return new SeededData(userIds, items, SEARCH_WORDS, bookingHorizon);
+    }
+
+    private List<Integer> createUsers() {
+        List<Integer> userIds = new ArrayList<>();
+        for (int i = 0; i < seed.getUsers(); i++) {
+            userIds.add(client.exchange(client.post("/users", null,
+                    Map.of("name", "Пользователь " + i, "email", "user" + i + "@load.shareit.ru")))
+                    .get("id").asInt());
+        }
+        return userIds;
+    }
+
+    private void createRequests(List<Integer> userIds) {
+        for (int i = 0; i < userIds.size(); i++) {
+            for (int j = 0; j < seed.getRequestsPerUser(); j++) {
+                String word = SEARCH_WORDS.get((i + j) % SEARCH_WORDS.size());
+                client.exchange(client.post("/requests", userIds.get(i),
+                        Map.of("description", "Ищу " + word + " на выходные, запрос " + i + "-" + j)));
+            }
+        }
+    }
+
+    private List<SeededItem> createItems(List<Integer> userIds) {
+        List<SeededItem> items = new ArrayList<>();
+        for (Integer ownerId : userIds) {
+            for (int j = 0; j < seed.getItemsPerUser(); j++) {
+                String word = SEARCH_WORDS.get(items.size() % SEARCH_WORDS.size());
+                Long id = client.exchange(client.post("/items", ownerId, Map.of(
+                        "name", word + " " + items.size(),
+                        "description", "Сдаю " + word + " в хорошем состоянии",
+                        "available", true))).get("id").asLong();
+                items.add(new SeededItem(id, ownerId));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Создаёт бронирования вещи и возвращает время окончания последнего из прошедших
+     */
+    private LocalDateTime createBookings(SeededItem item, List<Integer> userIds) {
+        LocalDateTime cursor = LocalDateTime.now();
+        for (int k = 0; k < seed.getPastBookingsPerItem(); k++) {
+            LocalDateTime start = max(cursor, LocalDateTime.now().plus(LEAD_MILLIS, ChronoUnit.MILLIS));
+            cursor = start.plus(PAST_BOOKING_MILLIS, ChronoUnit.MILLIS);
+            approve(item, createBooking(item, booker(item, userIds, k), start, cursor), true);
+        }
+        LocalDateTime pastEnd = cursor;
+
+        LocalDateTime currentStart = max(cursor, LocalDateTime.now().plus(LEAD_MILLIS, ChronoUnit.MILLIS));
+        approve(item, createBooking(item, booker(item, userIds, seed.getPastBookingsPerItem()),
+                currentStart, currentStart.plusDays(1)), true);
+
+        LocalDateTime futureStart = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(2);
+        for (int k = 0; k < seed.getFutureBookingsPerItem(); k++) {
+            LocalDateTime start = futureStart.plusDays(k);
+            Long bookingId = createBooking(item, booker(item, userIds, k), start, start.plusHours(12));
+            // по очереди: подтверждено, отклонено, ожидает подтверждения
+            if (k % 3 != 2) {
+                approve(item, bookingId, k % 3 == 0);
+            }
+        }
+        return pastEnd;
+    }
+
+    private void createComments(SeededItem item, List<Integer> userIds) {
+        for (int k = 0; k < seed.getPastBookingsPerItem(); k++) {
+            client.exchange(client.post("/items/" + item.getId() + "/comment", booker(item, userIds, k),
+                    Map.of("text", "Отзыв " + k + ": всё понравилось")));
+        }
+    }
+
+    private Long createBooking(SeededItem item, Integer bookerId, LocalDateTime start, LocalDateTime end) {
+        return client.exchange(client.post("/bookings", bookerId,
+                Map.of("itemId", item.getId(), "start", start, "end", end))).get("id").asLong();
+    }
+
+    private void approve(SeededItem item, Long bookingId, boolean approved) {
+        client.exchange(client.request("/bookings/" + bookingId + "?approved=" + approved, item.getOwnerId())
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    /**
+     * k-й арендатор вещи: любой пользователь, кроме её владельца
+     */
+    static Integer booker(SeededItem item, List<Integer> userIds, int k) {
+        int ownerIndex = userIds.indexOf(item.getOwnerId());
+        return userIds.get((ownerIndex + 1 + k % (userIds.size() - 1)) % userIds.size());
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static void waitUntil(LocalDateTime moment) {
+        long millis = ChronoUnit.MILLIS.between(LocalDateTime.now(), moment) + LEAD_MILLIS;
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Заполнение данных прервано", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.load;
+
+/**
+ * Эндпоинты шлюза, входящие в смесь запросов нагрузочного прогона
+ */
+public enum Endpoint {
+    ITEMS("GET /items"),
+    ITEMS_SEARCH("GET /items/search"),
+    BOOKINGS_OWNER("GET /bookings/owner"),
+    REQUESTS_ALL("GET /requests/all"),
+    BOOKING_CREATE("POST /bookings");
+
+    private final String title;
+
+    Endpoint(String title) {
+        this.title = title;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика одного эндпоинта: гистограмма задержек успешных ответов (в микросекундах) и число ошибок.
+ * Задержка отсчитывается от запланированного момента отправки, а не от фактического, поэтому время,
+ * которое запрос ждал отправки из-за перегрузки генератора или клиента, тоже попадает в задержку.
+ */
+public class EndpointStats {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Endpoint endpoint;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    public EndpointStats(Endpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void recordSuccess(long intendedStartNanos, long completedNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(completedNanos - intendedStartNanos);
+        latencies.recordValue(Math.min(Math.max(micros, 0), MAX_LATENCY_MICROS));
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
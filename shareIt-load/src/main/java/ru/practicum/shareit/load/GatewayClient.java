@@ -0,0 +1,89 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HTTP-клиент шлюза: синхронные вызовы для заполнения данных и асинхронная отправка запросов нагрузки
+ */
+public class GatewayClient {
+    public static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    public GatewayClient(String baseUrl, ObjectMapper objectMapper, Duration requestTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public HttpRequest.Builder request(String pathAndQuery, Integer userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json");
+        if (userId != null) {
+            builder.header(USER_HEADER, userId.toString());
+        }
+        return builder;
+    }
+
+    public HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать тело запроса", e);
+        }
+    }
+
+    public HttpRequest post(String path, Integer userId, Object body) {
+        return request(path, userId)
+                .header("Content-Type", "application/json")
+                .POST(json(body))
+                .build();
+    }
+
+    public CompletableFuture<HttpResponse<Void>> sendAsync(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    /**
+     * Синхронный вызов, ожидающий успешный ответ; тело ответа разбирается как JSON
+     */
+    public JsonNode exchange(HttpRequest request) {
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Запрос прерван: " + request.uri(), e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(String.format("%s %s вернул %d: %s", request.method(), request.uri(),
+                    response.statusCode(), new String(response.body())));
+        }
+        try {
+            return response.body().length == 0 ? null : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки с открытой моделью: запросы отправляются по расписанию с частотой targetRps,
+ * не дожидаясь ответов на предыдущие. Запросы прогрева в статистику не попадают.
+ */
+@Slf4j
+public class LoadGenerator {
+    private final GatewayClient client;
+    private final TrafficMix mix;
+    private final int targetRps;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration requestTimeout;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicLong inFlight = new AtomicLong();
+
+    public LoadGenerator(GatewayClient client, TrafficMix mix, LoadProperties properties) {
+        this.client = client;
+        this.mix = mix;
+        this.targetRps = properties.getTargetRps();
+        this.warmup = properties.getWarmup();
+        this.duration = properties.getDuration();
+        this.requestTimeout = properties.getRequestTimeout();
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    public Map<Endpoint, EndpointStats> run() {
+        Random random = new Random();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / targetRps;
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + warmup.toNanos();
+        long endNanos = measureFromNanos + duration.toNanos();
+        log.info("Прогрев {} с, затем измерение {} с при {} запросах в секунду",
+                warmup.toSeconds(), duration.toSeconds(), targetRps);
+
+        for (long i = 0; ; i++) {
+            long intendedNanos = startNanos + i * intervalNanos;
+            if (intendedNanos >= endNanos) {
+                break;
+            }
+            long delay = intendedNanos - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            Endpoint endpoint = mix.next(random);
+            send(mix.request(endpoint, random), intendedNanos >= measureFromNanos ? stats.get(endpoint) : null,
+                    intendedNanos);
+        }
+        awaitInFlight();
+        return stats;
+    }
+
+    private void send(HttpRequest request, EndpointStats endpointStats, long intendedNanos) {
+        inFlight.incrementAndGet();
+        client.sendAsync(request).whenComplete((response, error) -> {
+            long completedNanos = System.nanoTime();
+            inFlight.decrementAndGet();
+            if (endpointStats == null) {
+                return;
+            }
+            if (error == null && response.statusCode() / 100 == 2) {
+                endpointStats.recordSuccess(intendedNanos, completedNanos);
+            } else {
+                endpointStats.recordError();
+            }
+        });
+    }
+
+    private void awaitInFlight() {
+        long deadline = System.nanoTime() + requestTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        if (inFlight.get() > 0) {
+            log.warn("Не дождались ответа на {} запросов", inFlight.get());
+        }
+    }
+}
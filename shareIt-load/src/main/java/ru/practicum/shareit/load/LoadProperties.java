@@ -0,0 +1,115 @@
+package ru.practicum.shareit.load;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Настройки нагрузочного прогона (shareit.load.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.load")
+public class LoadProperties {
+    /**
+     * процесс сервера ShareIt
+     */
+    private final Application server = new Application();
+    /**
+     * процесс шлюза ShareIt
+     */
+    private final Application gateway = new Application();
+    /**
+     * объём тестовых данных
+     */
+    private final Seed seed = new Seed();
+    /**
+     * время ожидания готовности сервера и шлюза после запуска
+     */
+    private Duration startupTimeout = Duration.ofMinutes(2);
+    /**
+     * целевое число запросов в секунду, отправляемых в шлюз независимо от времени ответа
+     */
+    private int targetRps = 200;
+    /**
+     * прогрев: запросы отправляются, но в отчёт не попадают
+     */
+    private Duration warmup = Duration.ofSeconds(10);
+    /**
+     * длительность измерения
+     */
+    private Duration duration = Duration.ofSeconds(60);
+    /**
+     * время ожидания ответа на один запрос
+     */
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    /**
+     * веса эндпоинтов в смеси запросов
+     */
+    private Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+    /**
+     * каталог для журналов процессов и гистограмм задержек (*.hgrm)
+     */
+    private Path reportDir = Path.of("shareIt-load", "target", "load");
+
+    @Getter
+    @Setter
+    public static class Application {
+        /**
+         * исполняемый jar приложения
+         */
+        private Path jar;
+        /**
+         * порт, на котором запускается приложение
+         */
+        private int port;
+        /**
+         * аргументы JVM
+         */
+        private List<String> jvmArgs = new ArrayList<>();
+        /**
+         * аргументы приложения (свойства Spring)
+         */
+        private List<String> args = new ArrayList<>();
+        /**
+         * адрес, ответ 200 на который означает готовность приложения
+         */
+        private String readinessPath;
+    }
+
+    @Getter
+    @Setter
+    public static class Seed {
+        /**
+         * число пользователей, каждый из них владелец вещей
+         */
+        private int users = 50;
+        /**
+         * число вещей у каждого пользователя
+         */
+        private int itemsPerUser = 5;
+        /**
+         * число запросов вещей у каждого пользователя
+         */
+        private int requestsPerUser = 2;
+        /**
+         * число завершённых бронирований каждой вещи, по каждому из них арендатор оставляет отзыв
+         */
+        private int pastBookingsPerItem = 3;
+        /**
+         * число будущих бронирований каждой вещи (подтверждённые, отклонённые и ожидающие)
+         */
+        private int futureBookingsPerItem = 6;
+        /**
+         * число параллельно заполняемых вещей
+         */
+        private int parallelism = 16;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Отчёт прогона: по каждому эндпоинту число ответов и ошибок, пропускная способность и перцентили задержки.
+ * Полные распределения задержек сохраняются в формате HdrHistogram (*.hgrm, значения в миллисекундах),
+ * их можно построить на https://hdrhistogram.github.io/HdrHistogram/plotFiles.html
+ */
+public class LoadReport {
+    private static final double MICROS_IN_MILLI = 1000.0;
+    private static final String ROW = "%-20s %9s %7s %9s %9s %9s %9s %9s%n";
+
+    private final Collection<EndpointStats> stats;
+    private final Duration duration;
+
+    public LoadReport(Collection<EndpointStats> stats, Duration duration) {
+        this.stats = stats;
+        this.duration = duration;
+    }
+
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, ROW, "endpoint", "ok", "errors", "rps", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (EndpointStats endpointStats : stats) {
+            Histogram latencies = endpointStats.getLatencies();
+            if (latencies.getTotalCount() == 0 && endpointStats.getErrors() == 0) {
+                continue;
+            }
+            printRow(out, endpointStats.getEndpoint().getTitle(), latencies, endpointStats.getErrors());
+            total.add(latencies);
+            totalErrors += endpointStats.getErrors();
+        }
+        printRow(out, "total", total, totalErrors);
+    }
+
+    public void writeHistograms(Path directory) {
+        for (EndpointStats endpointStats : stats) {
+            Path file = directory.resolve(endpointStats.getEndpoint().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+                endpointStats.getLatencies().outputPercentileDistribution(out, MICROS_IN_MILLI);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void printRow(PrintStream out, String title, Histogram latencies, long errors) {
+        out.printf(Locale.ROOT, ROW, title,
+                latencies.getTotalCount(),
+                errors,
+                String.format(Locale.ROOT, "%.1f", latencies.getTotalCount() / (duration.toMillis() / 1000.0)),
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / MICROS_IN_MILLI);
+    }
+}
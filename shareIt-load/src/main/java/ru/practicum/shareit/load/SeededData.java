@@ -0,0 +1,31 @@
+package ru.practicum.shareit.load;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Идентификаторы созданных при заполнении пользователей и вещей, по которым строятся запросы нагрузки
+ */
+@Value
+public class SeededData {
+    List<Integer> userIds;
+    List<SeededItem> items;
+    List<String> searchWords;
+    /**
+     * начало интервала, в котором размещаются бронирования, создаваемые во время нагрузки
+     */
+    LocalDateTime bookingHorizon;
+
+    @Value
+    public static class SeededItem {
+        Long id;
+        Integer ownerId;
+        /**
+         * номер следующего свободного слота бронирования вещи; слоты не пересекаются по времени
+         */
+        AtomicInteger nextSlot = new AtomicInteger();
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * Нагрузочный прогон ShareIt: запускает сервер (H2 в памяти) и шлюз отдельными процессами,
+ * заполняет данные через API шлюза, подаёт взвешенную смесь запросов с заданной частотой
+ * и печатает перцентили задержки и пропускную способность по каждому эндпоинту.
+ * Запуск из корня проекта после mvn package -DskipTests:
+ * java -jar shareIt-load/target/shareIt-load-0.0.1-SNAPSHOT.jar --shareit.load.target-rps=500
+ */
+@Slf4j
+@RequiredArgsConstructor
+@SpringBootApplication
+@EnableConfigurationProperties(LoadProperties.class)
+public class ShareItLoad implements CommandLineRunner {
+    private final LoadProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public static void main(String[] args) {
+        SpringApplication.run(ShareItLoad.class, args);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Files.createDirectories(properties.getReportDir());
+        try (ApplicationProcess server = new ApplicationProcess("shareIt-server", properties.getServer(),
+                properties.getReportDir());
+             ApplicationProcess gateway = new ApplicationProcess("shareIt-gateway", properties.getGateway(),
+                     properties.getReportDir())) {
+            server.start(properties.getStartupTimeout());
+            gateway.start(properties.getStartupTimeout());
+
+            GatewayClient client = new GatewayClient(gateway.getUrl(), objectMapper, properties.getRequestTimeout());
+            SeededData data = new DataSeeder(client, properties.getSeed()).seed();
+            TrafficMix mix = new TrafficMix(client, data, properties.getWeights());
+            Map<Endpoint, EndpointStats> stats = new LoadGenerator(client, mix, properties).run();
+
+            LoadReport report = new LoadReport(stats.values(), properties.getDuration());
+            report.print(System.out);
+            report.writeHistograms(properties.getReportDir());
+            log.info("Гистограммы задержек сохранены в {}", properties.getReportDir().toAbsolutePath());
+        }
+    }
+}
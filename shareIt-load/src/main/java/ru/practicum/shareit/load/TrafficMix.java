@@ -0,0 +1,95 @@
+package ru.practicum.shareit.load;
+
+import ru.practicum.shareit.load.SeededData.SeededItem;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Взвешенная смесь запросов: выбирает эндпоинт пропорционально его весу и строит запрос
+ * от имени случайного пользователя по заполненным данным
+ */
+public class TrafficMix {
+    private static final String[] OWNER_STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final int PAGE_SIZE = 10;
+
+    private final GatewayClient client;
+    private final SeededData data;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    public TrafficMix(GatewayClient client, SeededData data, Map<Endpoint, Integer> weights) {
+        this.client = client;
+        this.data = data;
+        this.endpoints = weights.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toArray(Endpoint[]::new);
+        if (endpoints.length == 0) {
+            throw new IllegalArgumentException("В смеси запросов нет ни одного эндпоинта с положительным весом");
+        }
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += weights.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public Endpoint next(Random random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Вес вне диапазона: " + point);
+    }
+
+    public HttpRequest request(Endpoint endpoint, Random random) {
+        switch (endpoint) {
+            case ITEMS:
+                return client.request("/items?from=0&size=" + PAGE_SIZE, randomItem(random).getOwnerId())
+                        .GET().build();
+            case ITEMS_SEARCH:
+                String text = data.getSearchWords().get(random.nextInt(data.getSearchWords().size()));
+                return client.request("/items/search?from=0&size=" + PAGE_SIZE + "&text="
+                        + URLEncoder.encode(text, StandardCharsets.UTF_8), randomUser(random)).GET().build();
+            case BOOKINGS_OWNER:
+                return client.request("/bookings/owner?from=0&size=" + PAGE_SIZE + "&state="
+                                + OWNER_STATES[random.nextInt(OWNER_STATES.length)],
+                        randomItem(random).getOwnerId()).GET().build();
+            case REQUESTS_ALL:
+                return client.request("/requests/all?from=0&size=" + PAGE_SIZE, randomUser(random)).GET().build();
+            case BOOKING_CREATE:
+                return createBooking(random);
+            default:
+                throw new IllegalArgumentException("Неизвестный эндпоинт: " + endpoint);
+        }
+    }
+
+    /**
+     * Бронирование занимает очередной слот вещи, поэтому бронирования одной вещи не пересекаются
+     */
+    private HttpRequest createBooking(Random random) {
+        SeededItem item = randomItem(random);
+        LocalDateTime start = data.getBookingHorizon().plusHours(item.getNextSlot().getAndIncrement());
+        Integer bookerId = DataSeeder.booker(item, data.getUserIds(), random.nextInt(data.getUserIds().size()));
+        return client.post("/bookings", bookerId,
+                Map.of("itemId", item.getId(), "start", start, "end", start.plusMinutes(30)));
+    }
+
+    private SeededItem randomItem(Random random) {
+        List<SeededItem> items = data.getItems();
+        return items.get(random.nextInt(items.size()));
+    }
+
+    private Integer randomUser(Random random) {
+        return data.getUserIds().get(random.nextInt(data.getUserIds().size()));
+    }
+}
@@ -1,14 +1,18 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.metrics.QueryBudget;
 import ru.practicum.shareit.exception.IncorrectIdException;
 import ru.practicum.shareit.exception.RequestParamException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -26,6 +30,7 @@ import java.util.Objects;
 @RequiredArgsConstructor
 @RequestMapping("/bookings")
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final  BookingService bookingService;
     public final BookingMapper bookingMapper;
     public final UserService userService;
@@ -34,6 +39,7 @@ public class BookingController {
      * метод получения списка бронирований текущего пользователя
      */
     @GetMapping
+    @QueryBudget(4)
     public List<BookingDto> findAllBookings(
             @RequestHeader("X-Sharer-User-Id") Integer bookerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
@@ -46,8 +52,7 @@ public class BookingController {
                     HttpStatus.BAD_REQUEST);
 
         if (Arrays.stream(State.values()).anyMatch(x -> Objects.equals(String.valueOf(x), state))) {
-            return bookingService.findAllBookingsForBooker(bookerId, State.valueOf(state), from, size)
-                    .map(bookingMapper::toBookingDto).getContent();
+            return bookingService.findAllBookingsForBooker(bookerId, State.valueOf(state), from, size).getContent();
         } else {
             throw new RequestParamException("Unknown state: " + state);
         }
@@ -57,6 +62,7 @@ public class BookingController {
      * метод получения списка бронирований для всех вещей текущего пользователя
      */
     @GetMapping("/owner")
+    @QueryBudget(6)
     public List<BookingDto> findAllBookingsForOwner(
             @RequestHeader("X-Sharer-User-Id") Integer ownerId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
@@ -70,17 +76,51 @@ public class BookingController {
                     HttpStatus.BAD_REQUEST);
 
         if (Arrays.stream(State.values()).anyMatch(x -> Objects.equals(String.valueOf(x), state))) {
-            return bookingService.findAllBookingsForOwner(ownerId, State.valueOf(state), from, size)
-                    .map(bookingMapper::toBookingDto).getContent();
+            return bookingService.findAllBookingsForOwner(ownerId, State.valueOf(state), from, size).getContent();
         } else {
             throw new RequestParamException("Unknown state: " + state);
         }
     }
 
+    /**
+     * метод получения списка бронирований текущего пользователя постранично по курсору.
+     * Пустой параметр cursor запрашивает первую страницу, курсор следующей страницы возвращается
+     * в заголовке X-Next-Cursor (отсутствует на последней странице).
+     */
+    @GetMapping(params = "cursor")
+    @QueryBudget(4)
+    public ResponseEntity<List<BookingDto>> findAllBookingsByCursor(
+            @RequestHeader("X-Sharer-User-Id") Integer bookerId,
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", required = false, defaultValue = "10") Integer size) {
+        if (userService.findUserById(bookerId) == null)
+            throw new IncorrectIdException("UserID");
+        return toCursorResponse(bookingService.findBookingsForBookerAfter(
+                bookerId, toState(state), BookingCursor.decode(cursor), validateSize(size)));
+    }
+
+    /**
+     * метод получения списка бронирований для всех вещей текущего пользователя постранично по курсору
+     */
+    @GetMapping(value = "/owner", params = "cursor")
+    @QueryBudget(6)
+    public ResponseEntity<List<BookingDto>> findAllBookingsForOwnerByCursor(
+            @RequestHeader("X-Sharer-User-Id") Integer ownerId,
+            @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", required = false, defaultValue = "10") Integer size) {
+        if (userService.findUserById(ownerId) == null)
+            throw new IncorrectIdException("UserID");
+        return toCursorResponse(bookingService.findBookingsForOwnerAfter(
+                ownerId, toState(state), BookingCursor.decode(cursor), validateSize(size)));
+    }
+
     /**
      * метод получения данных о заказе по его ID
      */
     @GetMapping("/{bookingId}")
+    @QueryBudget(2)
     public BookingDto findBookingById(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                       @PathVariable("bookingId") Long bookingId) {
         if (userService.findUserById(userId) == null)
@@ -144,5 +184,27 @@ public class BookingController {
     public void deleteBooking(@PathVariable("id") Long id) {
         bookingService.deleteBooking(id);
     }
-}
 
+    private ResponseEntity<List<BookingDto>> toCursorResponse(Slice<BookingDto> slice) {
+        List<BookingDto> bookings = slice.getContent();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.hasNext()) {
+            BookingDto last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.after(last).encode());
+        }
+        return response.body(bookings);
+    }
+
+    private static State toState(String state) {
+        if (Arrays.stream(State.values()).anyMatch(x -> Objects.equals(String.valueOf(x), state))) {
+            return State.valueOf(state);
+        }
+        throw new RequestParamException("Unknown state: " + state);
+    }
+
+    private static Integer validateSize(Integer size) {
+        if (size <= 0)
+            throw new ValidationException("неверно указан параметр запроса size (д.б.>0)", HttpStatus.BAD_REQUEST);
+        return size;
+    }
+}
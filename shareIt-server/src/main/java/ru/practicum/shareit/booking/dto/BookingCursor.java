@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import ru.practicum.shareit.exception.RequestParamException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Класс BookingCursor - позиция в списке бронирований, отсортированном по (start, id) по убыванию.
+ * Передаётся клиенту в заголовке X-Next-Cursor в виде непрозрачной строки (base64url)
+ * и возвращается им в параметре cursor для получения следующей страницы.
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public class BookingCursor {
+    /**
+     * курсор первой страницы: позже любого реального бронирования
+     */
+    public static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private final LocalDateTime start;
+    private final Long id;
+
+    /**
+     * курсор, указывающий на бронирование booking (следующая страница начнётся после него).
+     * Время обрезается до микросекунд - с такой точностью timestamp хранится в базе данных.
+     */
+    public static BookingCursor after(BookingDto booking) {
+        return new BookingCursor(booking.getStart().truncatedTo(ChronoUnit.MICROS), booking.getId());
+    }
+
+    /**
+     * метод разбора курсора из параметра запроса. Пустая строка означает первую страницу.
+     */
+    public static BookingCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(cursor);
+            }
+            return new BookingCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RequestParamException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
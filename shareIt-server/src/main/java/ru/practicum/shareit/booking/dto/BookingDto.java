@@ -26,6 +26,15 @@ public class BookingDto {
     private UserShort booker;
     private BookingStatus status;
 
+    /**
+     * конструктор для запросов списков бронирований (select new ... в BookingRepository):
+     * краткие описания вещи и арендатора собираются из отдельных столбцов
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Long itemId, String itemName,
+                      Integer bookerId, BookingStatus status) {
+        this(id, start, end, new ItemShort(itemId, itemName), new UserShort(bookerId), status);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
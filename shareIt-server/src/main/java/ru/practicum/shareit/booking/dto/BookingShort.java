@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс BookingShort содержит краткую информацию о бронировании вместе с ID вещи.
+ * Используется в запросах-проекциях, которые выбирают бронирования сразу для нескольких вещей.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingShort {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Integer bookerId;
+    private Long itemId;
+}
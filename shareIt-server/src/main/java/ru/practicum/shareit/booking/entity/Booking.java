@@ -14,12 +14,18 @@ import java.util.Objects;
  */
 @Entity
 @Table(schema = "public", name = "bookings")
+@NamedEntityGraph(name = Booking.WITH_ITEM, attributeNodes = @NamedAttributeNode("item"))
 @Getter
 @Setter
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Booking {
+    /**
+     * план загрузки бронирования вместе с вещью - всё, что нужно BookingMapper.toBookingDto
+     * (арендатор и владелец вещи представлены в ответе только своими ID)
+     */
+    public static final String WITH_ITEM = "Booking.withItem";
 
     /**
      * id — уникальный идентификатор бронирования;
@@ -43,14 +49,14 @@ public class Booking {
     /**
      * item — вещь, которую пользователь бронирует;
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
 
     /**
      * booker — пользователь User, который осуществляет бронирование;
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", nullable = false)
     private User booker;
 
@@ -61,18 +67,35 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
+    /**
+     * version — номер версии для оптимистической блокировки, увеличивается при каждом изменении бронирования.
+     */
+    @Version
+    private Long version;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
+
+    /**
+     * вещь и арендатор загружаются лениво и в сравнении не участвуют
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Booking)) return false;
         Booking booking = (Booking) o;
         return Objects.equals(getStart(), booking.getStart()) && Objects.equals(getEnd(), booking.getEnd())
-                && Objects.equals(getItem(), booking.getItem()) && Objects.equals(getBooker(), booking.getBooker())
                 && getStatus() == booking.getStatus();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getStart(), getEnd(), getItem(), getBooker(), getStatus());
+        return Objects.hash(getStart(), getEnd(), getStatus());
     }
 }
@@ -2,70 +2,149 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.enums.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query(value = "SELECT * FROM public.BOOKINGS b WHERE b.booker_id = ?1 ORDER BY b.start_date DESC",
-            nativeQuery = true)
-    Page<Booking> findAllByBookerId(Integer userId, Pageable page);
-
-    @Query(value = "SELECT * FROM public.BOOKINGS b WHERE b.booker_id = ?1 and b.status = ?2 " +
-            "ORDER BY b.start_date DESC",
-            nativeQuery = true)
-    Page<Booking> findAllByBooker_IdAndStatus(Integer userId, String status, Pageable page);
-
-    @Query(value = "SELECT * FROM public.BOOKINGS b WHERE b.booker_id = ?1 and b.end_date <= ?2 " +
-            "ORDER BY b.start_date DESC",
-            nativeQuery = true)
-    Page<Booking> findPastBookingsForBooker(Integer userId, LocalDateTime now, Pageable page);
-
-    @Query(value = "SELECT * FROM public.BOOKINGS b WHERE b.booker_id = ?1 and b.start_date > ?2 " +
-            "ORDER BY b.start_date DESC",
-            nativeQuery = true)
-    Page<Booking> findFutureBookingsForBooker(Integer userId, LocalDateTime now, Pageable page);
-
-    @Query(value = "SELECT * FROM public.BOOKINGS b WHERE b.booker_id = ?1 and b.start_date <= ?2 and b.end_date > ?3 " +
-            "ORDER BY b.start_date",
-            nativeQuery = true)
-    Page<Booking> findCurrentBookingsForBooker(Integer userId, LocalDateTime now1, LocalDateTime now2, Pageable page);
-
-    @Query(value = "SELECT * FROM public.BOOKINGS b WHERE b.item_id = ?1 and b.status like '%APPROVED%'",
-            nativeQuery = true)
-    List<Booking> findAllBookingsByItem_Id(Long itemId);
-
-    @Query(value = "SELECT * FROM public.BOOKINGS b WHERE b.item_id = ?1 and b.booker_id = ?2 and b.end_date <= ?3 ",
-            nativeQuery = true)
+    /**
+     * начало запросов списков бронирований: строки читаются сразу в BookingDto, без загрузки сущностей
+     * в контекст постоянства. Запрос должен соединять бронирование b с вещью i.
+     */
+    String BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, i.id, i.name, b.booker.id, b.status) ";
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM)
+    Optional<Booking> findById(Long id);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where b.booker.id = ?1 order by b.start desc")
+    Page<BookingDto> findAllByBookerId(Integer userId, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where b.booker.id = ?1 and b.status = ?2 order by b.start desc")
+    Page<BookingDto> findAllByBooker_IdAndStatus(Integer userId, BookingStatus status, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where b.booker.id = ?1 and b.end <= ?2 order by b.start desc")
+    Page<BookingDto> findPastBookingsForBooker(Integer userId, LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where b.booker.id = ?1 and b.start > ?2 order by b.start desc")
+    Page<BookingDto> findFutureBookingsForBooker(Integer userId, LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where b.booker.id = ?1 and b.start <= ?2 and b.end > ?3 order by b.start")
+    Page<BookingDto> findCurrentBookingsForBooker(Integer userId, LocalDateTime now1, LocalDateTime now2, Pageable page);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingShort(b.id, b.start, b.end, b.booker.id, b.item.id) " +
+            "from Booking b where b.item.id = ?1 and b.status = ?2 and b.start < ?3 order by b.start desc")
+    List<BookingShort> findLastBookingOfItem(Long itemId, BookingStatus status, LocalDateTime now, Pageable page);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingShort(b.id, b.start, b.end, b.booker.id, b.item.id) " +
+            "from Booking b where b.item.id = ?1 and b.status = ?2 and b.start > ?3 order by b.start")
+    List<BookingShort> findNextBookingOfItem(Long itemId, BookingStatus status, LocalDateTime now, Pageable page);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingShort(b.id, b.start, b.end, b.booker.id, b.item.id) " +
+            "from Booking b where b.item.id in ?1 and b.status = ?2 and b.start = " +
+            "(select max(b2.start) from Booking b2 where b2.item.id = b.item.id and b2.status = ?2 and b2.start < ?3)")
+    List<BookingShort> findLastBookingsOfItems(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingShort(b.id, b.start, b.end, b.booker.id, b.item.id) " +
+            "from Booking b where b.item.id in ?1 and b.status = ?2 and b.start = " +
+            "(select min(b2.start) from Booking b2 where b2.item.id = b.item.id and b2.status = ?2 and b2.start > ?3)")
+    List<BookingShort> findNextBookingsOfItems(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
+    @Query("select b from Booking b where b.item.id = ?1 and b.booker.id = ?2 and b.end <= ?3")
     List<Booking> findByItem_idAndBooker_idAndEnd_dateIsBefore(Long itemId, Integer userId, LocalDateTime now);
 
-    @Query(value = "SELECT b.* FROM public.BOOKINGS b INNER JOIN public.ITEMS i ON i.id=b.item_id" +
-            " WHERE i.owner_id = ?1 ORDER BY b.start_date DESC",
-            nativeQuery = true)
-    Page<Booking> findAllBookingsToOwnerPageable(Integer ownerId, Pageable page);
-
-    @Query(value = "SELECT b.*, i.owner_id FROM public.BOOKINGS b INNER JOIN public.ITEMS i ON i.id=b.item_id" +
-            " WHERE i.owner_id = ?1 and b.start_date <= ?2 and b.end_date > ?3 ORDER BY b.start_date",
-            nativeQuery = true)
-    Page<Booking> findCurrentBookingsForOwnerPageable(Integer ownerId, LocalDateTime now1, LocalDateTime now2, Pageable page);
-
-    @Query(value = "SELECT b.*, i.owner_id FROM public.BOOKINGS b INNER JOIN public.ITEMS i ON i.id=b.item_id" +
-            " WHERE i.owner_id = ?1 and b.end_date <= ?2 ORDER BY b.start_date DESC",
-            nativeQuery = true)
-    Page<Booking> findPastBookingsForOwnerPageable(Integer ownerId, LocalDateTime now, Pageable page);
-
-    @Query(value = "SELECT b.*, i.owner_id FROM public.BOOKINGS b INNER JOIN public.ITEMS i ON i.id=b.item_id" +
-            " WHERE i.owner_id = ?1 and b.start_date > ?2 ORDER BY b.start_date DESC",
-            nativeQuery = true)
-    Page<Booking> findFutureBookingsForOwnerPageable(Integer ownerId, LocalDateTime now, Pageable page);
-
-    @Query(value = "SELECT b.*, i.owner_id FROM public.BOOKINGS b INNER JOIN public.ITEMS i ON i.id=b.item_id" +
-            " WHERE i.owner_id = ?1 and b.status = ?2  ORDER BY b.start_date",
-            nativeQuery = true)
-    Page<Booking> findStatusBookingsForOwnerPageable(Integer ownerId, String status, Pageable page);
-}
\ No newline at end of file
+    @Query(BOOKING_DTO + "from Booking b join b.item i where i.owner.id = ?1 order by b.start desc")
+    Page<BookingDto> findAllBookingsToOwnerPageable(Integer ownerId, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where i.owner.id = ?1 and b.start <= ?2 and b.end > ?3 " +
+            "order by b.start")
+    Page<BookingDto> findCurrentBookingsForOwnerPageable(Integer ownerId, LocalDateTime now1, LocalDateTime now2, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where i.owner.id = ?1 and b.end <= ?2 order by b.start desc")
+    Page<BookingDto> findPastBookingsForOwnerPageable(Integer ownerId, LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where i.owner.id = ?1 and b.start > ?2 order by b.start desc")
+    Page<BookingDto> findFutureBookingsForOwnerPageable(Integer ownerId, LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where i.owner.id = ?1 and b.status = ?2 order by b.start")
+    Page<BookingDto> findStatusBookingsForOwnerPageable(Integer ownerId, BookingStatus status, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where b.booker.id = ?1 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findBookerBookingsAfter(Integer bookerId, LocalDateTime start, Long id, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where b.booker.id = ?1 and b.status = ?4 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findBookerBookingsWithStatusAfter(Integer bookerId, LocalDateTime start, Long id,
+                                                     BookingStatus status, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where b.booker.id = ?1 and b.start <= ?4 and b.end > ?4 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findCurrentBookerBookingsAfter(Integer bookerId, LocalDateTime start, Long id,
+                                                  LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where b.booker.id = ?1 and b.end <= ?4 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findPastBookerBookingsAfter(Integer bookerId, LocalDateTime start, Long id,
+                                               LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where b.booker.id = ?1 and b.start > ?4 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findFutureBookerBookingsAfter(Integer bookerId, LocalDateTime start, Long id,
+                                                 LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where i.owner.id = ?1 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findOwnerBookingsAfter(Integer ownerId, LocalDateTime start, Long id, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where i.owner.id = ?1 and b.status = ?4 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findOwnerBookingsWithStatusAfter(Integer ownerId, LocalDateTime start, Long id,
+                                                    BookingStatus status, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where i.owner.id = ?1 and b.start <= ?4 and b.end > ?4 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findCurrentOwnerBookingsAfter(Integer ownerId, LocalDateTime start, Long id,
+                                                 LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where i.owner.id = ?1 and b.end <= ?4 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findPastOwnerBookingsAfter(Integer ownerId, LocalDateTime start, Long id,
+                                              LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO + "from Booking b join b.item i where i.owner.id = ?1 and b.start > ?4 and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findFutureOwnerBookingsAfter(Integer ownerId, LocalDateTime start, Long id,
+                                                LocalDateTime now, Pageable page);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingShort(b.id, b.start, b.end, b.booker.id, b.item.id) " +
+            "from Booking b where b.item.id in ?1 and b.status = ?2")
+    List<BookingShort> findItemsBookingsWithStatus(Collection<Long> itemIds, BookingStatus status);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    boolean existsItemBookingWithStatusBetween(Long itemId, BookingStatus status, LocalDateTime start,
+                                               LocalDateTime end);
+
+    /**
+     * вещь бронирования для блокировки (@LockItems) до начала транзакции; читается из основной базы данных,
+     * а не из реплики, чтобы только что созданное бронирование не осталось без блокировки
+     */
+    @Transactional
+    @Query("select b.item.id from Booking b where b.id = ?1")
+    Optional<Long> findItemIdById(Long id);
+}
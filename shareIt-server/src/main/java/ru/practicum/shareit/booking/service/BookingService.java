@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.enums.State;
 
@@ -12,12 +15,23 @@ public interface BookingService {
     /**
      * метод получения списка бронирований текущего пользователя
      */
-    Page<Booking> findAllBookingsForBooker(Integer bookerId, State stateEnum, Integer from, Integer size);
+    Page<BookingDto> findAllBookingsForBooker(Integer bookerId, State stateEnum, Integer from, Integer size);
 
     /**
      * метод получения списка бронирований для всех вещей текущего пользователя
      */
-    Page<Booking> findAllBookingsForOwner(Integer bookerId, State stateEnum, Integer from, Integer size);
+    Page<BookingDto> findAllBookingsForOwner(Integer bookerId, State stateEnum, Integer from, Integer size);
+
+    /**
+     * метод получения страницы бронирований текущего пользователя после курсора (без подсчёта общего количества)
+     */
+    Slice<BookingDto> findBookingsForBookerAfter(Integer bookerId, State stateEnum, BookingCursor cursor, Integer size);
+
+    /**
+     * метод получения страницы бронирований для вещей текущего пользователя после курсора
+     * (без подсчёта общего количества)
+     */
+    Slice<BookingDto> findBookingsForOwnerAfter(Integer ownerId, State stateEnum, BookingCursor cursor, Integer size);
 
     /**
      * метод получения данных о вещи по её ID
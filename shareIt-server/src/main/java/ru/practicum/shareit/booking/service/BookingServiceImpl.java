@@ -1,17 +1,26 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.LockItems;
+import ru.practicum.shareit.common.outbox.Outbox;
+import ru.practicum.shareit.common.outbox.OutboxEventType;
+import ru.practicum.shareit.common.retry.RetryOnConflict;
 import ru.practicum.shareit.exception.IncorrectIdException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.service.UserService;
@@ -23,15 +32,18 @@ import java.time.LocalDateTime;
  */
 @Service
 @Slf4j
+@Timed("shareit.service")
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     String message;
     private final BookingRepository bookingRepository;
     private final UserService userService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final Outbox outbox;
 
     @Transactional(readOnly = true)
     @Override
-    public Page<Booking> findAllBookingsForBooker(Integer bookerId, State stateEnum, Integer from, Integer size) {
+    public Page<BookingDto> findAllBookingsForBooker(Integer bookerId, State stateEnum, Integer from, Integer size) {
         log.info("Исполняется запрос на получение всех бронирований пользователя.");
         Pageable page = PageRequest.of(from / size, size);
         LocalDateTime now = LocalDateTime.now();
@@ -46,15 +58,15 @@ public class BookingServiceImpl implements BookingService {
                 return bookingRepository.findFutureBookingsForBooker(bookerId, now, page);
             case WAITING:
             case REJECTED:
-                String status = String.valueOf(stateEnum);
+                BookingStatus status = BookingStatus.valueOf(String.valueOf(stateEnum));
                 return bookingRepository.findAllByBooker_IdAndStatus(bookerId, status, page);
         }
         return null;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
-    public Page<Booking> findAllBookingsForOwner(Integer ownerId, State stateEnum, Integer from, Integer size) {
+    public Page<BookingDto> findAllBookingsForOwner(Integer ownerId, State stateEnum, Integer from, Integer size) {
         log.info("Исполняется запрос на получение всех бронирований для владельца.");
         Pageable page = PageRequest.of(from / size, size);
         LocalDateTime now = LocalDateTime.now();
@@ -69,12 +81,64 @@ public class BookingServiceImpl implements BookingService {
                 return bookingRepository.findFutureBookingsForOwnerPageable(ownerId, now, page);
             case WAITING:
             case REJECTED:
-                String status = String.valueOf(stateEnum);
+                BookingStatus status = BookingStatus.valueOf(String.valueOf(stateEnum));
                 return bookingRepository.findStatusBookingsForOwnerPageable(ownerId, status, page);
         }
         return null;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<BookingDto> findBookingsForBookerAfter(Integer bookerId, State stateEnum, BookingCursor cursor,
+                                                     Integer size) {
+        log.info("Исполняется запрос на получение бронирований пользователя после курсора.");
+        Pageable page = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = cursor.getStart();
+        Long id = cursor.getId();
+        switch (stateEnum) {
+            case ALL:
+                return bookingRepository.findBookerBookingsAfter(bookerId, start, id, page);
+            case CURRENT:
+                return bookingRepository.findCurrentBookerBookingsAfter(bookerId, start, id, now, page);
+            case PAST:
+                return bookingRepository.findPastBookerBookingsAfter(bookerId, start, id, now, page);
+            case FUTURE:
+                return bookingRepository.findFutureBookerBookingsAfter(bookerId, start, id, now, page);
+            case WAITING:
+            case REJECTED:
+                BookingStatus status = BookingStatus.valueOf(String.valueOf(stateEnum));
+                return bookingRepository.findBookerBookingsWithStatusAfter(bookerId, start, id, status, page);
+        }
+        return null;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<BookingDto> findBookingsForOwnerAfter(Integer ownerId, State stateEnum, BookingCursor cursor,
+                                                    Integer size) {
+        log.info("Исполняется запрос на получение бронирований для владельца после курсора.");
+        Pageable page = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = cursor.getStart();
+        Long id = cursor.getId();
+        switch (stateEnum) {
+            case ALL:
+                return bookingRepository.findOwnerBookingsAfter(ownerId, start, id, page);
+            case CURRENT:
+                return bookingRepository.findCurrentOwnerBookingsAfter(ownerId, start, id, now, page);
+            case PAST:
+                return bookingRepository.findPastOwnerBookingsAfter(ownerId, start, id, now, page);
+            case FUTURE:
+                return bookingRepository.findFutureOwnerBookingsAfter(ownerId, start, id, now, page);
+            case WAITING:
+            case REJECTED:
+                BookingStatus status = BookingStatus.valueOf(String.valueOf(stateEnum));
+                return bookingRepository.findOwnerBookingsWithStatusAfter(ownerId, start, id, status, page);
+        }
+        return null;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Booking findBookingById(Long id) {
@@ -82,6 +146,7 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.findById(id).orElseThrow(() -> new IncorrectIdException("BookingID"));
     }
 
+    @LockItems("#booking.item.id")
     @Transactional
     @Override
     public Booking createBooking(Booking booking) {
@@ -95,10 +160,15 @@ public class BookingServiceImpl implements BookingService {
             log.error(message);
             throw new ValidationException(message, HttpStatus.BAD_REQUEST);
         }
+        checkApprovedOverlap(booking, null);
         log.info("Создано новое бронирование.");
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        outbox.record(OutboxEventType.BOOKING_CREATED, savedBooking);
+        return savedBooking;
     }
 
+    @RetryOnConflict
+    @LockItems({"@bookingRepository.findItemIdById(#bookingId).orElse(null)", "#booking.item?.id"})
     @Transactional
     @Override
     public Booking updateBooking(Integer userId, Long bookingId, Booking booking) {
@@ -110,6 +180,7 @@ public class BookingServiceImpl implements BookingService {
         if (!dbBooking.getBooker().getId().equals(userId)) {
             throw new IncorrectIdException("UserIsNotBooker");
         }
+        bookingIntervalIndex.delete(dbBooking);
         if (booking.getStart() != null) {
             dbBooking.setStart(booking.getStart());
         }
@@ -119,11 +190,16 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getItem() != null) {
             dbBooking.setItem(booking.getItem());
         }
+        checkApprovedOverlap(dbBooking, dbBooking.getId());
         dbBooking.setStatus(BookingStatus.WAITING);
-        log.info("Обновлено бронирование {}", dbBooking);
-        return bookingRepository.save(dbBooking);
+        log.info("Обновлено бронирование с ID: {}", dbBooking.getId());
+        Booking savedBooking = bookingRepository.save(dbBooking);
+        outbox.record(OutboxEventType.BOOKING_UPDATED, savedBooking);
+        return savedBooking;
     }
 
+    @RetryOnConflict
+    @LockItems("@bookingRepository.findItemIdById(#bookingId).orElse(null)")
     @Transactional
     @Override
     public Booking approveBooking(Integer userId, Long bookingId, Boolean approved) {
@@ -131,19 +207,27 @@ public class BookingServiceImpl implements BookingService {
         if (dbBooking.getStatus().equals(BookingStatus.APPROVED))
             throw new ValidationException("Нельзя изменить статус подтвержденного заказа", HttpStatus.BAD_REQUEST);
         if (approved) {
+            checkApprovedOverlap(dbBooking, dbBooking.getId());
             dbBooking.setStatus(BookingStatus.APPROVED);
             log.info("Одобрено бронирование с ID = " + bookingId);
         } else {
             dbBooking.setStatus(BookingStatus.REJECTED);
             log.info("Отклонено бронирование с ID = " + bookingId);
         }
-        return bookingRepository.save(dbBooking);
+        Booking savedBooking = bookingRepository.save(dbBooking);
+        bookingIntervalIndex.index(savedBooking);
+        outbox.record(approved ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED, savedBooking);
+        return savedBooking;
     }
 
     @Transactional
     @Override
     public void deleteBooking(Long id) {
         log.info("Выполняется удаление бронирования.");
+        bookingRepository.findById(id).ifPresent(booking -> {
+            bookingIntervalIndex.delete(booking);
+            outbox.record(OutboxEventType.BOOKING_DELETED, booking);
+        });
         bookingRepository.deleteById(id);
     }
 
@@ -161,5 +245,18 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException(message, HttpStatus.BAD_REQUEST);
         }
     }
-}
 
+    /**
+     * метод проверки, что бронирование не пересекается с подтверждёнными бронированиями той же вещи
+     *
+     * @param exceptId ID бронирования, которое не учитывается при проверке (само проверяемое бронирование)
+     */
+    private void checkApprovedOverlap(Booking booking, Long exceptId) {
+        if (bookingIntervalIndex.overlapsApproved(booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                exceptId)) {
+            message = "Вещь уже забронирована на пересекающийся период.";
+            log.error(message);
+            throw new ValidationException(message, HttpStatus.CONFLICT);
+        }
+    }
+}
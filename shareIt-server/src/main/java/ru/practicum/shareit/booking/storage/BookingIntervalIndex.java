@@ -0,0 +1,359 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Класс BookingIntervalIndex - расписание подтверждённых бронирований каждой вещи в памяти приложения.
+ * Для вещи хранятся массивы начал и концов полуинтервалов [start, end) в микросекундах от эпохи, ID бронирований
+ * и арендаторов, упорядоченные по началу. Двоичный поиск по началам за O(log n) отвечает, пересекается ли период
+ * с подтверждённым бронированием (подтверждённые бронирования вещи не пересекаются, поэтому достаточно проверить
+ * ближайшее, начавшееся раньше конца периода), и находит последнее и следующее бронирование вещи.
+ * Расписания загружаются из базы данных при первом обращении, одним запросом для списка вещей.
+ * Изменения применяются после фиксации транзакции; пришедшие во время загрузки - сразу после неё.
+ * Расписание загружается в текущей транзакции. При маршрутизации на реплики (shareit.datasource.replica.enabled)
+ * читающая транзакция может выполняться на отстающей реплике, поэтому загруженное в ней расписание используется
+ * только для ответа на текущий запрос и не сохраняется.
+ * При выключенном индексе проверка пересечений выполняется запросом к базе данных.
+ * Расписания хранятся не дольше expireAfterWrite и не более maximumSize вещей; удалённые вещи и бронирования
+ * удалённых пользователей убираются из индекса. Индекс рассчитан на один экземпляр приложения: изменения,
+ * сделанные другим экземпляром, видны только после истечения срока хранения расписания, а пересекающиеся
+ * подтверждения с разных экземпляров отклоняет ограничение базы данных PostgreSQL.
+ */
+@Component
+@Slf4j
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final boolean replicasEnabled;
+    private final Cache<Long, Timeline> timelines;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.interval-index.enabled:true}") boolean enabled,
+                                @Value("${shareit.datasource.replica.enabled:false}") boolean replicasEnabled,
+                                @Value("${shareit.booking.interval-index.maximum-size:100000}") long maximumSize,
+                                @Value("${shareit.booking.interval-index.expire-after-write:10m}")
+                                Duration expireAfterWrite) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.replicasEnabled = replicasEnabled;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * метод проверки, пересекается ли интервал [start, end) с подтверждённым бронированием вещи
+     *
+     * @param exceptId ID бронирования, которое не учитывается при проверке (может быть null)
+     */
+    public boolean overlapsApproved(Long itemId, LocalDateTime start, LocalDateTime end, Long exceptId) {
+        if (!enabled) {
+            return bookingRepository.existsItemBookingWithStatusBetween(itemId, BookingStatus.APPROVED, start, end);
+        }
+        Timeline timeline = load(List.of(itemId)).get(itemId);
+        synchronized (timeline) {
+            return timeline.overlaps(toMicros(start), toMicros(end), exceptId);
+        }
+    }
+
+    /**
+     * метод получения последних подтверждённых бронирований вещей - с наибольшим началом ранее момента now
+     *
+     * @return бронирования по ID вещи; вещей без таких бронирований в результате нет
+     */
+    public Map<Long, BookingShort> findLastApproved(Collection<Long> itemIds, LocalDateTime now) {
+        long time = toMicros(now);
+        return find(itemIds, timeline -> timeline.startsBefore(time) - 1);
+    }
+
+    /**
+     * метод получения следующих подтверждённых бронирований вещей - с наименьшим началом позднее момента now
+     *
+     * @return бронирования по ID вещи; вещей без таких бронирований в результате нет
+     */
+    public Map<Long, BookingShort> findNextApproved(Collection<Long> itemIds, LocalDateTime now) {
+        long time = toMicros(now);
+        return find(itemIds, timeline -> timeline.startsBefore(time + 1));
+    }
+
+    /**
+     * метод обновления бронирования в индексе после фиксации текущей транзакции
+     */
+    public void index(Booking booking) {
+        long id = booking.getId();
+        long start = toMicros(booking.getStart());
+        long end = toMicros(booking.getEnd());
+        int bookerId = booking.getBooker().getId();
+        boolean approved = booking.getStatus() == BookingStatus.APPROVED;
+        afterCommit(booking.getItem().getId(), timeline -> {
+            if (approved) {
+                timeline.add(id, start, end, bookerId);
+            } else {
+                timeline.remove(id, start);
+            }
+        });
+    }
+
+    /**
+     * метод удаления бронирования из индекса после фиксации текущей транзакции; вызывается до изменения дат
+     */
+    public void delete(Booking booking) {
+        long id = booking.getId();
+        long start = toMicros(booking.getStart());
+        afterCommit(booking.getItem().getId(), timeline -> timeline.remove(id, start));
+    }
+
+    /**
+     * метод удаления расписаний вещей после фиксации текущей транзакции (вещи удалены)
+     */
+    public void deleteItems(Collection<Long> itemIds) {
+        if (enabled) {
+            afterCommit(() -> timelines.invalidateAll(itemIds));
+        }
+    }
+
+    /**
+     * метод удаления расписаний, содержащих бронирования пользователя, после фиксации текущей транзакции
+     * (бронирования удалены вместе с пользователем); расписания загрузятся из базы данных при следующем обращении
+     */
+    public void deleteBooker(Integer bookerId) {
+        if (enabled) {
+            afterCommit(() -> timelines.asMap().forEach((itemId, timeline) -> {
+                synchronized (timeline) {
+                    if (timeline.hasBooker(bookerId)) {
+                        timelines.invalidate(itemId);
+                    }
+                }
+            }));
+        }
+    }
+
+    private Map<Long, BookingShort> find(Collection<Long> itemIds, ToIntFunction<Timeline> position) {
+        Map<Long, BookingShort> result = new HashMap<>();
+        for (Map.Entry<Long, Timeline> entry : load(itemIds).entrySet()) {
+            Timeline timeline = entry.getValue();
+            synchronized (timeline) {
+                int found = position.applyAsInt(timeline);
+                if (found >= 0 && found < timeline.size) {
+                    result.put(entry.getKey(), timeline.toBookingShort(found, entry.getKey()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, Timeline> load(Collection<Long> itemIds) {
+        Map<Long, Timeline> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        boolean keep = !replicasEnabled || !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        for (Long itemId : itemIds) {
+            Timeline timeline = keep ? timelines.get(itemId, id -> new Timeline()) : loadedOrNew(itemId);
+            result.put(itemId, timeline);
+            synchronized (timeline) {
+                if (!timeline.loaded) {
+                    missing.add(itemId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        Map<Long, List<BookingShort>> loaded = bookingRepository
+                .findItemsBookingsWithStatus(missing, BookingStatus.APPROVED)
+                .stream()
+                .collect(Collectors.groupingBy(BookingShort::getItemId));
+        for (Long itemId : missing) {
+            Timeline timeline = result.get(itemId);
+            synchronized (timeline) {
+                if (!timeline.loaded) {
+                    for (BookingShort booking : loaded.getOrDefault(itemId, List.of())) {
+                        timeline.add(booking.getId(), toMicros(booking.getStart()), toMicros(booking.getEnd()),
+                                booking.getBookerId());
+                    }
+                    timeline.pending.forEach(change -> change.accept(timeline));
+                    timeline.pending.clear();
+                    timeline.loaded = true;
+                }
+            }
+        }
+        log.debug("Загружены расписания бронирований {} вещей.", missing.size());
+        return result;
+    }
+
+    /**
+     * сохранённое расписание, если оно уже загружено, иначе - новое, которое не сохраняется
+     */
+    private Timeline loadedOrNew(Long itemId) {
+        Timeline timeline = timelines.getIfPresent(itemId);
+        if (timeline != null) {
+            synchronized (timeline) {
+                if (timeline.loaded) {
+                    return timeline;
+                }
+            }
+        }
+        return new Timeline();
+    }
+
+    private void afterCommit(Long itemId, Consumer<Timeline> change) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            Timeline timeline = timelines.getIfPresent(itemId);
+            if (timeline == null) {
+                return;
+            }
+            synchronized (timeline) {
+                if (timeline.loaded) {
+                    change.accept(timeline);
+                } else {
+                    timeline.pending.add(change);
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * подтверждённые бронирования одной вещи, упорядоченные по началу, затем по ID
+     */
+    private static final class Timeline {
+        private long[] starts = new long[4];
+        private long[] ends = new long[4];
+        private long[] ids = new long[4];
+        private int[] bookerIds = new int[4];
+        private int size;
+        private boolean loaded;
+        private final List<Consumer<Timeline>> pending = new ArrayList<>();
+
+        /**
+         * число бронирований, начавшихся ранее момента time, - позиция первого бронирования с началом не ранее time
+         */
+        private int startsBefore(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private boolean overlaps(long start, long end, Long exceptId) {
+            int previous = startsBefore(end) - 1;
+            if (previous >= 0 && exceptId != null && ids[previous] == exceptId) {
+                previous--;
+            }
+            return previous >= 0 && ends[previous] > start;
+        }
+
+        private void add(long id, long start, long end, int bookerId) {
+            remove(id, start);
+            if (size == starts.length) {
+                int capacity = size * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                bookerIds = Arrays.copyOf(bookerIds, capacity);
+            }
+            int position = startsBefore(start);
+            while (position < size && starts[position] == start && ids[position] < id) {
+                position++;
+            }
+            shift(position, position + 1, size - position);
+            starts[position] = start;
+            ends[position] = end;
+            ids[position] = id;
+            bookerIds[position] = bookerId;
+            size++;
+        }
+
+        /**
+         * бронирование ищется двоичным поиском по началу среди бронирований с тем же началом
+         */
+        private void remove(long id, long start) {
+            for (int position = startsBefore(start); position < size && starts[position] == start; position++) {
+                if (ids[position] == id) {
+                    shift(position + 1, position, size - position - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        private boolean hasBooker(int bookerId) {
+            for (int position = 0; position < size; position++) {
+                if (bookerIds[position] == bookerId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void shift(int from, int to, int length) {
+            System.arraycopy(starts, from, starts, to, length);
+            System.arraycopy(ends, from, ends, to, length);
+            System.arraycopy(ids, from, ids, to, length);
+            System.arraycopy(bookerIds, from, bookerIds, to, length);
+        }
+
+        private BookingShort toBookingShort(int position, Long itemId) {
+            return new BookingShort(ids[position], fromMicros(starts[position]), fromMicros(ends[position]),
+                    bookerIds[position], itemId);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Класс ItemBookingLocks - набор блокировок (lock striping), по одной на группу вещей, для операций
+ * создания, изменения и подтверждения бронирований (методы с @LockItems). Операции с одной вещью выполняются
+ * по очереди, операции с вещами из разных групп - параллельно. Блокировка берётся до начала транзакции
+ * и снимается после её завершения: ожидающий поток не держит соединение с базой данных, а следующая операция
+ * с той же вещью видит уже зафиксированные изменения.
+ * Между экземплярами приложения пересечения бронирований исключает ограничение базы данных PostgreSQL.
+ */
+@Component
+@Slf4j
+public class ItemBookingLocks implements MethodInterceptor, BeanFactoryAware {
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+    private BeanFactory beanFactory;
+
+    public ItemBookingLocks(@Value("${shareit.booking.lock.stripes:64}") int stripes,
+                            @Value("${shareit.booking.lock.timeout:5s}") Duration timeout) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getThis() == null ? invocation.getMethod()
+                : AopUtils.getMostSpecificMethod(invocation.getMethod(), invocation.getThis().getClass());
+        LockItems lockItems = AnnotatedElementUtils.findMergedAnnotation(method, LockItems.class);
+        if (lockItems == null) {
+            return invocation.proceed();
+        }
+        try (Held ignored = lock(itemIds(lockItems, method, invocation.getArguments()))) {
+            return invocation.proceed();
+        }
+    }
+
+    /**
+     * метод блокировки вещей вне транзакции; блокировки снимаются вызовом close у результата
+     *
+     * @param itemIds ID вещей (null пропускаются)
+     */
+    public Held lock(Long... itemIds) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Блокировка вещей берётся до начала транзакции.");
+        }
+        int[] indexes = Arrays.stream(itemIds)
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripe)
+                .distinct()
+                .sorted()
+                .toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+                locked++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (locked < indexes.length) {
+            unlock(indexes, locked);
+            String message = "Вещь сейчас бронируется другим запросом, повторите попытку позже.";
+            log.error(message);
+            throw new ValidationException(message, HttpStatus.CONFLICT);
+        }
+        return () -> unlock(indexes, indexes.length);
+    }
+
+    private Long[] itemIds(LockItems lockItems, Method method, Object[] arguments) {
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(null, method, arguments,
+                parameterNames);
+        if (beanFactory != null) {
+            context.setBeanResolver(new BeanFactoryResolver(beanFactory));
+        }
+        return Arrays.stream(lockItems.value())
+                .map(expression -> expressions.computeIfAbsent(expression, parser::parseExpression)
+                        .getValue(context, Long.class))
+                .toArray(Long[]::new);
+    }
+
+    private int stripe(Long itemId) {
+        int hash = itemId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+    private void unlock(int[] indexes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    /**
+     * полученные блокировки вещей
+     */
+    public interface Held extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Подключает ItemBookingLocks к методам с @LockItems. Порядок советника - между повтором (@RetryOnConflict)
+ * и @Transactional: каждая попытка берёт блокировку заново, а транзакция и соединение с базой данных
+ * открываются только после того, как блокировка получена, и освобождаются раньше неё.
+ */
+@Configuration
+public class ItemBookingLocksConfig {
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public Advisor itemBookingLocksAdvisor(ItemBookingLocks itemBookingLocks) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, LockItems.class, true), itemBookingLocks);
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+}
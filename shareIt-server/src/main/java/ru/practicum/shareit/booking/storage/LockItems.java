@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Выполняет метод сервиса под блокировками ItemBookingLocks. ID вещей вычисляются выражениями SpEL
+ * по аргументам метода, как ключи @Cacheable (#booking.item.id); к бинам можно обратиться через @имя бина.
+ * Выражения, вернувшие null, пропускаются. Блокировки берутся до начала транзакции метода и снимаются
+ * после её завершения.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LockItems {
+    /**
+     * выражения SpEL, возвращающие ID вещей
+     */
+    String[] value();
+}
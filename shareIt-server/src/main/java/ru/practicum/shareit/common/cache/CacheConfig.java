@@ -0,0 +1,38 @@
+package ru.practicum.shareit.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Кэш пользователей, найденных по ID. Вещи и запросы ссылаются на пользователей и другие сущности, которые
+ * загружаются лениво, поэтому они кэшируются только во втором уровне кэша Hibernate: найденная там сущность
+ * связывается с текущей сессией, а отсоединённая сущность из этого кэша - нет. Размер и время жизни записей ограничены
+ * свойствами shareit.cache.*. Удаление записей при изменении данных выполняется после фиксации транзакции,
+ * чтобы параллельный запрос не положил в кэш ещё не изменённую запись. Статистика кэшей (cache.gets с тегом
+ * result=hit/miss, cache.puts, cache.evictions, cache.size) публикуется Spring Boot на /actuator/metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS = "users";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${shareit.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
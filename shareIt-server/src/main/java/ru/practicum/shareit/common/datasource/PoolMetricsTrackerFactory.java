@@ -0,0 +1,102 @@
+package ru.practicum.shareit.common.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Класс PoolMetricsTrackerFactory - источник метрик hikaricp.connections.* для пулов основной базы и реплик.
+ * Hikari принимает источник метрик только до запуска пула, а реестр метрик создаётся позже пулов
+ * (он сам зависит от источника соединений), поэтому источник задаётся при создании пула, а метрики
+ * начинают записываться, когда реестр подключён через bindTo.
+ */
+public class PoolMetricsTrackerFactory implements MetricsTrackerFactory, MeterBinder {
+    private final List<DeferredTracker> trackers = new CopyOnWriteArrayList<>();
+    private volatile MicrometerMetricsTrackerFactory delegate;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        DeferredTracker tracker = new DeferredTracker(poolName, poolStats);
+        trackers.add(tracker);
+        MicrometerMetricsTrackerFactory current = delegate;
+        if (current != null) {
+            tracker.bind(current);
+        }
+        return tracker;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        MicrometerMetricsTrackerFactory current = new MicrometerMetricsTrackerFactory(registry);
+        delegate = current;
+        for (DeferredTracker tracker : trackers) {
+            tracker.bind(current);
+        }
+    }
+
+    /**
+     * метрики одного пула; до подключения реестра не записываются
+     */
+    private static final class DeferredTracker implements IMetricsTracker {
+        private final String poolName;
+        private final PoolStats poolStats;
+        private volatile IMetricsTracker tracker;
+
+        private DeferredTracker(String poolName, PoolStats poolStats) {
+            this.poolName = poolName;
+            this.poolStats = poolStats;
+        }
+
+        private synchronized void bind(MicrometerMetricsTrackerFactory factory) {
+            if (tracker == null) {
+                tracker = factory.create(poolName, poolStats);
+            }
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            IMetricsTracker current = tracker;
+            if (current != null) {
+                current.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            IMetricsTracker current = tracker;
+            if (current != null) {
+                current.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            }
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            IMetricsTracker current = tracker;
+            if (current != null) {
+                current.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            }
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            IMetricsTracker current = tracker;
+            if (current != null) {
+                current.recordConnectionTimeout();
+            }
+        }
+
+        @Override
+        public void close() {
+            IMetricsTracker current = tracker;
+            if (current != null) {
+                current.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршрутизация читающих транзакций на реплики базы данных. Включается свойством
+ * shareit.datasource.replica.enabled=true; без него используется один источник соединений Spring Boot.
+ * Пулы основной базы и реплик настраиваются свойствами spring.datasource.hikari.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    /**
+     * пулы основной базы и реплик не являются бинами, поэтому метрики hikaricp.connections.* подключаются здесь
+     */
+    @Bean
+    public PoolMetricsTrackerFactory replicaPoolMetrics() {
+        return new PoolMetricsTrackerFactory();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                      ReplicaProperties replicaProperties,
+                                                      PoolMetricsTrackerFactory replicaPoolMetrics,
+                                                      Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        configurePool(primary, "shareit-primary", binder, replicaPoolMetrics);
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaProperties.Instance instance : replicaProperties.getInstances()) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(instance.getUrl())
+                    .username(instance.getUsername() != null
+                            ? instance.getUsername() : dataSourceProperties.determineUsername())
+                    .password(instance.getPassword() != null
+                            ? instance.getPassword() : dataSourceProperties.determinePassword())
+                    .build();
+            configurePool(replica, "shareit-replica-" + replicas.size(), binder, replicaPoolMetrics);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, replicaProperties.getMaxLag(),
+                replicaProperties.getCheckInterval(), replicaProperties.getLagQuery());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * при открытой сессии на время запроса (open-in-view) Hibernate по умолчанию удерживает соединение
+     * до конца запроса, и все транзакции запроса выполнялись бы на базе, выбранной для первой из них.
+     * Соединение возвращается в пул после каждой транзакции, чтобы следующая выбрала базу заново.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * источник метрик задаётся до первого соединения: после запуска пула Hikari его не принимает
+     */
+    private static void configurePool(HikariDataSource pool, String poolName, Binder binder,
+                                      PoolMetricsTrackerFactory metrics) {
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        pool.setMetricsTrackerFactory(metrics);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.common.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки реплик базы данных для читающих транзакций (shareit.datasource.replica.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource.replica")
+public class ReplicaProperties {
+    /**
+     * включает маршрутизацию транзакций readOnly = true на реплики
+     */
+    private boolean enabled;
+    /**
+     * реплики; драйвер и настройки пула (spring.datasource.hikari.*) общие с основной базой
+     */
+    private List<Instance> instances = new ArrayList<>();
+    /**
+     * реплика, отставшая от основной базы больше чем на это время, не получает запросов до следующей проверки
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+    /**
+     * период проверки доступности и отставания реплик
+     */
+    private Duration checkInterval = Duration.ofSeconds(5);
+    /**
+     * запрос, возвращающий отставание реплики в секундах (NULL - реплика не отстаёт).
+     * Если не задан, проверяется только доступность реплики.
+     */
+    private String lagQuery;
+
+    @Getter
+    @Setter
+    public static class Instance {
+        private String url;
+        /**
+         * по умолчанию - spring.datasource.username
+         */
+        private String username;
+        /**
+         * по умолчанию - spring.datasource.password
+         */
+        private String password;
+    }
+}
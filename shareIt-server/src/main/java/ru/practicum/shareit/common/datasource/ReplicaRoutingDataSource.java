@@ -0,0 +1,186 @@
+package ru.practicum.shareit.common.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Класс ReplicaRoutingDataSource - источник соединений, направляющий транзакции readOnly = true на реплики
+ * (по очереди), а остальные запросы - на основную базу данных. Реплика, недоступная или отставшая больше
+ * чем на maxLag при последней проверке, запросов не получает; если таких не осталось, чтение идёт с основной базы.
+ * Решение принимается при получении соединения, поэтому источник должен быть обёрнут в
+ * LazyConnectionDataSourceProxy: иначе соединение берётся до того, как транзакция помечена как readOnly.
+ * Число выданных соединений публикуется метрикой shareit.datasource.connections (тег target),
+ * доступность реплик - метрикой shareit.datasource.replica.available.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, DisposableBean {
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final String lagQuery;
+    private final LongAdder primaryConnections = new LongAdder();
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService checker;
+
+    /**
+     * @param checkInterval период проверки реплик; при нулевом реплики проверяются только при запуске
+     *                      и вызовах checkReplicas
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, Duration maxLag,
+                                    Duration checkInterval, String lagQuery) {
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        if (!checkInterval.isZero() && !replicas.isEmpty()) {
+            checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-lag-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            checker.scheduleWithFixedDelay(this::checkReplicas, checkInterval.toMillis(), checkInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            List<Replica> available = new ArrayList<>(replicas.size());
+            for (Replica replica : replicas) {
+                if (replica.available) {
+                    available.add(replica);
+                }
+            }
+            if (!available.isEmpty()) {
+                Replica replica = available.get(Math.floorMod(next.getAndIncrement(), available.size()));
+                replica.connections.increment();
+                return replica.key;
+            }
+        }
+        primaryConnections.increment();
+        return PRIMARY;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindConnectionCounter(registry, PRIMARY, primaryConnections);
+        for (Replica replica : replicas) {
+            bindConnectionCounter(registry, replica.key, replica.connections);
+            Gauge.builder("shareit.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .description("Доступность реплики для чтения по результатам последней проверки")
+                    .tag("replica", replica.key)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * метод проверки доступности и отставания реплик
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean available = isAvailable(replica);
+            if (available != replica.available) {
+                log.warn("Реплика {} {} для чтения.", replica.key, available ? "снова используется" : "исключена");
+            }
+            replica.available = available;
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        close(primary);
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+    }
+
+    private boolean isAvailable(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (lagQuery == null) {
+                return connection.isValid((int) Math.max(1, maxLag.toSeconds()));
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+                if (lagSeconds * 1000 > maxLag.toMillis()) {
+                    log.debug("Реплика {} отстаёт на {} с.", replica.key, lagSeconds);
+                    return false;
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            log.debug("Реплика {} недоступна: {}", replica.key, e.getMessage());
+            return false;
+        }
+    }
+
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable) {
+            ((AutoCloseable) dataSource).close();
+        }
+    }
+
+    private static void bindConnectionCounter(MeterRegistry registry, String target, LongAdder connections) {
+        FunctionCounter.builder("shareit.datasource.connections", connections, LongAdder::sum)
+                .description("Соединения, выданные транзакциям, по базам данных")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        private final LongAdder connections = new LongAdder();
+        private volatile boolean available;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
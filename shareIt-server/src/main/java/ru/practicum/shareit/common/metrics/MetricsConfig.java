@@ -0,0 +1,28 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики сервера, дополняющие автоматические метрики Spring Boot (http.server.requests по эндпоинтам,
+ * spring.data.repository.invocations по методам репозиториев, hikaricp.connections.* по пулу соединений):
+ * время методов сервисов с аннотацией @Timed и подсчёт SQL-запросов для QueryCountInterceptor.
+ * Все метрики доступны на /actuator/metrics и /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new QueryCountingStatementInspector());
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.common.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Максимальное число SQL-запросов, которое эндпоинт может выполнить за один HTTP-запрос.
+ * Бюджет не должен зависеть от размера страницы: рост числа запросов с числом элементов ответа (N+1)
+ * превышает бюджет. Превышение журналируется и учитывается в метрике shareit.db.queries.budget.exceeded,
+ * интеграционные тесты (@SpringBootTest) при превышении падают.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
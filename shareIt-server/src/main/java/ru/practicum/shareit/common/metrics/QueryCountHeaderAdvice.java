@@ -0,0 +1,36 @@
+package ru.practicum.shareit.common.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Добавляет к ответу заголовок X-Query-Count с числом SQL-запросов, выполненных до записи тела ответа.
+ * Включается свойством shareit.query-count.header=true (профили разработки и тестов).
+ * Ответы без тела заголовок не получают.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "shareit.query-count.header", havingValue = "true")
+public class QueryCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String HEADER = "X-Query-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (QueryCounter.isStarted()) {
+            response.getHeaders().set(HEADER, String.valueOf(QueryCounter.current()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Считает SQL-запросы, выполненные при обработке HTTP-запроса, и записывает их число
+ * в метрику shareit.db.queries с тегами метода и шаблона адреса (как у http.server.requests).
+ * Если у метода контроллера объявлен @QueryBudget и он превышен, увеличивается shareit.db.queries.budget.exceeded.
+ */
+@Slf4j
+public class QueryCountInterceptor implements HandlerInterceptor {
+    public static final String METRIC = "shareit.db.queries";
+    public static final String BUDGET_EXCEEDED_METRIC = "shareit.db.queries.budget.exceeded";
+
+    private final MeterRegistry registry;
+
+    public QueryCountInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        long queries = QueryCounter.stop();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder(METRIC)
+                .description("Число SQL-запросов на один HTTP-запрос")
+                .baseUnit("queries")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(queries);
+
+        QueryBudget budget = handler instanceof HandlerMethod
+                ? ((HandlerMethod) handler).getMethodAnnotation(QueryBudget.class)
+                : null;
+        if (budget != null && queries > budget.value()) {
+            log.warn("{} {} выполнил {} SQL-запросов при бюджете {}", request.getMethod(), uri, queries,
+                    budget.value());
+            registry.counter(BUDGET_EXCEEDED_METRIC, "method", request.getMethod(), "uri", uri).increment();
+        }
+    }
+}
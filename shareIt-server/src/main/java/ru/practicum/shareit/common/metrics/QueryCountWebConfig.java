@@ -0,0 +1,25 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Подключает QueryCountInterceptor ко всем контроллерам. Без реестра метрик (например, в тестах @WebMvcTest)
+ * перехватчик не подключается.
+ */
+@Configuration
+public class QueryCountWebConfig implements WebMvcConfigurer {
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public QueryCountWebConfig(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        registry.ifAvailable(meterRegistry -> interceptors.addInterceptor(new QueryCountInterceptor(meterRegistry)));
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.common.metrics;
+
+/**
+ * Счётчик SQL-запросов, выполненных текущим потоком с момента вызова start().
+ * Вне start()/stop() запросы не считаются.
+ */
+public final class QueryCounter {
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    public static void increment() {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    public static boolean isStarted() {
+        return COUNT.get() != null;
+    }
+
+    /**
+     * число запросов с момента start() (0, если счётчик не запущен)
+     */
+    public static long current() {
+        long[] count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * останавливает счётчик и возвращает число выполненных запросов
+     */
+    public static long stop() {
+        long count = current();
+        COUNT.remove();
+        return count;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.common.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate передаёт сюда текст каждого подготавливаемого SQL-запроса, включая нативные;
+ * запрос не изменяется, только учитывается в QueryCounter
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.increment();
+        return sql;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.common.outbox;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс DomainEvent - событие об изменении бронирования или вещи, которое OutboxRelay отправляет подписчикам
+ * (методам с @EventListener) после фиксации изменения. Одно событие может быть доставлено повторно,
+ * поэтому подписчики должны учитывать id уже обработанных событий или быть идемпотентными.
+ */
+@Value
+public class DomainEvent {
+    Long id;
+    OutboxEventType type;
+    Long aggregateId;
+    /**
+     * состояние бронирования или вещи после изменения в формате JSON
+     */
+    String payload;
+    LocalDateTime created;
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.item.entity.Item;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Класс Outbox записывает события об изменении бронирований и вещей в таблицу outbox_events в той же транзакции,
+ * что и само изменение: событие сохраняется тогда и только тогда, когда фиксируется изменение.
+ * Подписчики получают события от OutboxRelay после фиксации, не задерживая запрос, который их вызвал.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * метод записи события об изменении бронирования
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, Booking booking) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", booking.getId());
+        payload.put("itemId", booking.getItem().getId());
+        payload.put("bookerId", booking.getBooker().getId());
+        payload.put("start", booking.getStart());
+        payload.put("end", booking.getEnd());
+        payload.put("status", booking.getStatus());
+        save(type, booking.getId(), payload);
+    }
+
+    /**
+     * метод записи события об изменении вещи
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, Item item) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", item.getId());
+        payload.put("ownerId", item.getOwner().getId());
+        payload.put("name", item.getName());
+        payload.put("available", item.getAvailable());
+        payload.put("requestId", item.getRequest() == null ? null : item.getRequest().getId());
+        save(type, item.getId(), payload);
+    }
+
+    /**
+     * метод записи события об удалении вещи, от которой остался только ID
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, Long aggregateId) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", aggregateId);
+        save(type, aggregateId, payload);
+    }
+
+    private void save(OutboxEventType type, Long aggregateId, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось записать событие " + type + " в формате JSON.", e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(type)
+                .aggregateType(type.getAggregateType())
+                .aggregateId(aggregateId)
+                .payload(json)
+                .created(LocalDateTime.now())
+                .build());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.common.outbox;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Класс OutboxEvent ("исходящее событие") - запись об изменении бронирования или вещи, сохранённая
+ * в одной транзакции с самим изменением и ожидающая отправки подписчикам (OutboxRelay).
+ */
+@Entity
+@Table(schema = "public", name = "outbox_events")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class OutboxEvent {
+    /**
+     * id — уникальный идентификатор события, определяет порядок отправки;
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false, updatable = false)
+    private Long id;
+
+    /**
+     * type — тип события;
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 50)
+    private OutboxEventType type;
+
+    /**
+     * aggregateType — тип изменённого объекта (BOOKING, ITEM);
+     */
+    @Column(name = "aggregate_type", nullable = false, updatable = false, length = 20)
+    private String aggregateType;
+
+    /**
+     * aggregateId — ID изменённого бронирования или вещи;
+     */
+    @Column(name = "aggregate_id", nullable = false, updatable = false)
+    private Long aggregateId;
+
+    /**
+     * payload — состояние бронирования или вещи после изменения в формате JSON;
+     */
+    @Column(nullable = false, updatable = false, length = 2000)
+    private String payload;
+
+    /**
+     * created — дата записи события;
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime created;
+
+    /**
+     * published — дата отправки события подписчикам (null - ещё не отправлено);
+     */
+    private LocalDateTime published;
+
+    /**
+     * attempts — число неудачных попыток отправки;
+     */
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * nextAttemptAt — время, раньше которого событие не отправляется: после неудачной попытки - с нарастающей
+     * задержкой, во время отправки - до истечения срока захвата события экземпляром приложения (null - сразу).
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.common.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    String DUE_EVENTS = "SELECT * FROM public.outbox_events e " +
+            "WHERE e.published IS NULL AND e.attempts < ?1 AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= ?2) " +
+            "AND NOT EXISTS (SELECT 1 FROM public.outbox_events p WHERE p.published IS NULL AND p.attempts < ?1 " +
+            "AND p.aggregate_type = e.aggregate_type AND p.aggregate_id = e.aggregate_id AND p.id < e.id) " +
+            "ORDER BY e.id LIMIT ?3 ";
+
+    /**
+     * неотправленные события, время попытки которых наступило, - не более одного, самого раннего, на объект,
+     * в порядке записи; строки блокируются до конца транзакции, заблокированные другим экземпляром
+     * приложения пропускаются (PostgreSQL)
+     */
+    @Query(value = DUE_EVENTS + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDueSkipLocked(int maxAttempts, LocalDateTime now, int limit);
+
+    /**
+     * то же для баз данных без SKIP LOCKED: экземпляры приложения выбирают события по очереди
+     */
+    @Query(value = DUE_EVENTS + "FOR UPDATE", nativeQuery = true)
+    List<OutboxEvent> lockDue(int maxAttempts, LocalDateTime now, int limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.published = ?2, e.nextAttemptAt = null where e.id in ?1")
+    void markPublished(Collection<Long> ids, LocalDateTime published);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1, e.nextAttemptAt = ?2 where e.id = ?1")
+    void markFailed(Long id, LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.published < ?1")
+    int deletePublishedBefore(LocalDateTime before);
+}
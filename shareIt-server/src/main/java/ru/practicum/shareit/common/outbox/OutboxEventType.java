@@ -0,0 +1,28 @@
+package ru.practicum.shareit.common.outbox;
+
+/**
+ * Перечисление OutboxEventType содержит типы событий об изменении бронирований и вещей.
+ */
+public enum OutboxEventType {
+    BOOKING_CREATED("BOOKING"),
+    BOOKING_UPDATED("BOOKING"),
+    BOOKING_APPROVED("BOOKING"),
+    BOOKING_REJECTED("BOOKING"),
+    BOOKING_DELETED("BOOKING"),
+    ITEM_CREATED("ITEM"),
+    ITEM_UPDATED("ITEM"),
+    ITEM_DELETED("ITEM");
+
+    /**
+     * тип изменённого объекта; события одного объекта отправляются подписчикам по порядку
+     */
+    private final String aggregateType;
+
+    OutboxEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+}
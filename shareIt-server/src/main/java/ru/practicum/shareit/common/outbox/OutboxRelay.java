@@ -0,0 +1,314 @@
+package ru.practicum.shareit.common.outbox;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Класс OutboxRelay - фоновая отправка событий из таблицы outbox_events подписчикам (методам с @EventListener,
+ * принимающим DomainEvent). События выбираются пачками в порядке записи, не более одного - самого раннего
+ * неотправленного - на бронирование или вещь, поэтому события одного объекта не обгоняют друг друга, а сбой
+ * подписчика на одном объекте не задерживает остальные. Выбранные события захватываются на claimTimeout
+ * (next_attempt_at) в короткой транзакции, и подписчики вызываются уже после её фиксации, без блокировок строк
+ * и соединения с базой данных; другие экземпляры приложения захваченные события пропускают. На PostgreSQL
+ * строки, заблокированные другим экземпляром, пропускаются (SKIP LOCKED), на остальных базах данных (H2)
+ * экземпляры выбирают события по очереди.
+ * Если подписчик выбросил исключение, число попыток события увеличивается, а следующая попытка откладывается
+ * с удваивающейся задержкой от retryDelay до retryMaxDelay; после maxAttempts попыток событие больше
+ * не отправляется и остаётся в таблице для разбора. Отправка выполняется после фиксации каждой транзакции,
+ * записавшей события, и периодически (pollInterval) - для отложенных событий и событий других экземпляров.
+ * Событие отправляется хотя бы один раз: при сбое после вызова подписчиков оно будет отправлено повторно
+ * по истечении срока захвата.
+ * Метрики: shareit.outbox.published, shareit.outbox.failed и задержка отправки shareit.outbox.lag.
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements MeterBinder, DisposableBean {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DataSource dataSource;
+    private final TransactionTemplate relayTransaction;
+    private final TransactionTemplate withoutTransaction;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration retryMaxDelay;
+    private final Duration claimTimeout;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final Duration cleanUpInterval;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile Boolean skipLocked;
+    private volatile Timer lag;
+    private volatile ScheduledExecutorService executor;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       DataSource dataSource,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${shareit.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                       @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${shareit.outbox.retry-delay:1s}") Duration retryDelay,
+                       @Value("${shareit.outbox.retry-max-delay:5m}") Duration retryMaxDelay,
+                       @Value("${shareit.outbox.claim-timeout:1m}") Duration claimTimeout,
+                       @Value("${shareit.outbox.poll-interval:5s}") Duration pollInterval,
+                       @Value("${shareit.outbox.retention:7d}") Duration retention,
+                       @Value("${shareit.outbox.clean-up-interval:1h}") Duration cleanUpInterval) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.dataSource = dataSource;
+        this.relayTransaction = new TransactionTemplate(transactionManager);
+        this.withoutTransaction = new TransactionTemplate(transactionManager);
+        this.withoutTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.retryMaxDelay = retryMaxDelay;
+        this.claimTimeout = claimTimeout;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.cleanUpInterval = cleanUpInterval;
+    }
+
+    /**
+     * отправка начинается после запуска приложения, когда созданы все подписчики
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::relayQuietly, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::cleanUpQuietly, cleanUpInterval.toMillis(), cleanUpInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * метод запуска отправки вне очереди; вызовы, пришедшие до начала отправки, объединяются в один
+     */
+    public void wakeUp() {
+        ScheduledExecutorService current = executor;
+        if (current != null && wakeUpPending.compareAndSet(false, true)) {
+            try {
+                current.execute(() -> {
+                    wakeUpPending.set(false);
+                    relayQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                wakeUpPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * метод отправки всех событий, время попытки которых наступило; неотправленные события откладываются,
+     * поэтому отправка продолжается, пока в пачке есть отправленные события
+     *
+     * @return число отправленных событий
+     */
+    public int relayPending() {
+        int total = 0;
+        int relayed;
+        do {
+            relayed = dispatch(claim());
+            total += relayed;
+        } while (relayed > 0);
+        return total;
+    }
+
+    /**
+     * метод отправки одной пачки событий
+     *
+     * @return число отправленных событий
+     */
+    public int relayBatch() {
+        return dispatch(claim());
+    }
+
+    /**
+     * метод удаления событий, отправленных раньше, чем retention назад; выполняется каждые cleanUpInterval
+     *
+     * @return число удалённых событий
+     */
+    public int cleanUp() {
+        Integer deleted = relayTransaction.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        return deleted == null ? 0 : deleted;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.outbox.published", published, LongAdder::sum)
+                .description("События, отправленные подписчикам")
+                .register(registry);
+        FunctionCounter.builder("shareit.outbox.failed", failed, LongAdder::sum)
+                .description("Неудачные попытки отправки событий")
+                .register(registry);
+        lag = Timer.builder("shareit.outbox.lag")
+                .description("Время от записи события до его отправки подписчикам")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * захват пачки событий: строки блокируются только на время этой транзакции
+     */
+    private List<OutboxEvent> claim() {
+        boolean skipLocked = skipLocked();
+        List<OutboxEvent> claimed = relayTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = skipLocked
+                    ? outboxEventRepository.lockDueSkipLocked(maxAttempts, now, batchSize)
+                    : outboxEventRepository.lockDue(maxAttempts, now, batchSize);
+            LocalDateTime claimedUntil = now.plus(claimTimeout);
+            events.forEach(event -> event.setNextAttemptAt(claimedUntil));
+            return events;
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    /**
+     * SKIP LOCKED поддерживается, если база данных - PostgreSQL; определяется при первой отправке
+     */
+    private boolean skipLocked() {
+        Boolean current = skipLocked;
+        if (current == null) {
+            try {
+                String productName = JdbcUtils.extractDatabaseMetaData(dataSource,
+                        DatabaseMetaData::getDatabaseProductName);
+                current = DatabaseDriver.fromProductName(productName) == DatabaseDriver.POSTGRESQL;
+                skipLocked = current;
+            } catch (MetaDataAccessException e) {
+                log.warn("Не удалось определить базу данных, события выбираются без SKIP LOCKED: {}",
+                        e.getMessage());
+                return false;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * вызов подписчиков вне транзакции и запись результатов попыток
+     *
+     * @return число отправленных событий
+     */
+    private int dispatch(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Long> delivered = new ArrayList<>();
+        Map<Long, LocalDateTime> retries = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            if (deliver(event)) {
+                delivered.add(event.getId());
+            } else {
+                retries.put(event.getId(), LocalDateTime.now().plus(backoff(event.getAttempts() + 1)));
+            }
+        }
+        relayTransaction.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.markPublished(delivered, LocalDateTime.now());
+            }
+            retries.forEach(outboxEventRepository::markFailed);
+        });
+        return delivered.size();
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        DomainEvent domainEvent = new DomainEvent(event.getId(), event.getType(), event.getAggregateId(),
+                event.getPayload(), event.getCreated());
+        try {
+            withoutTransaction.executeWithoutResult(status -> eventPublisher.publishEvent(domainEvent));
+        } catch (RuntimeException e) {
+            int attempts = event.getAttempts() + 1;
+            failed.increment();
+            if (attempts >= maxAttempts) {
+                log.error("Событие {} не отправлено после {} попыток и больше не отправляется.", event, attempts, e);
+            } else {
+                log.warn("Не удалось отправить событие {}, попытка {}: {}", event, attempts, e.getMessage());
+            }
+            return false;
+        }
+        published.increment();
+        Timer timer = lag;
+        if (timer != null) {
+            timer.record(Duration.between(event.getCreated(), LocalDateTime.now()));
+        }
+        return true;
+    }
+
+    /**
+     * задержка перед попыткой: retryDelay, удваивающаяся с каждой неудачной попыткой, но не больше retryMaxDelay
+     */
+    private Duration backoff(int attempts) {
+        Duration delay = retryDelay;
+        for (int i = 1; i < attempts && delay.compareTo(retryMaxDelay) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(retryMaxDelay) < 0 ? delay : retryMaxDelay;
+    }
+
+    private void relayQuietly() {
+        try {
+            relayPending();
+        } catch (RuntimeException e) {
+            log.error("Ошибка отправки событий.", e);
+        }
+    }
+
+    private void cleanUpQuietly() {
+        try {
+            int deleted = cleanUp();
+            if (deleted > 0) {
+                log.info("Удалено отправленных событий: {}", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Ошибка удаления отправленных событий.", e);
+        }
+    }
+}
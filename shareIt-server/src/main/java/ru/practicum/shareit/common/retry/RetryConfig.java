@@ -0,0 +1,25 @@
+package ru.practicum.shareit.common.retry;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.retry.annotation.RetryConfiguration;
+
+/**
+ * Включает обработку @Retryable (аналог @EnableRetry). Порядок советника повтора выше, чем у @Transactional
+ * и блокировок вещей (@LockItems), поэтому каждая попытка заново берёт блокировки и выполняется в новой
+ * транзакции, видя изменения, зафиксированные конкурентом.
+ * В spring-retry 1.3 у @EnableRetry нет атрибута order, и при равном порядке вложенность не определена.
+ */
+@Configuration
+public class RetryConfig {
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static RetryConfiguration retryAdvisor() {
+        RetryConfiguration advisor = new RetryConfiguration();
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+        return advisor;
+    }
+}
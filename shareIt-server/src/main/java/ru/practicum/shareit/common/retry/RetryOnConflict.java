@@ -0,0 +1,28 @@
+package ru.practicum.shareit.common.retry;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Повторяет транзакционный метод сервиса, если при фиксации изменений сущность с @Version уже изменил
+ * другой запрос. Число попыток и экспоненциальная задержка со случайным разбросом задаются свойствами
+ * shareit.retry.*; после последней неудачной попытки исключение обрабатывается как конфликт (409).
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Retryable(value = OptimisticLockingFailureException.class,
+        maxAttemptsExpression = "${shareit.retry.max-attempts:3}",
+        backoff = @Backoff(delayExpression = "${shareit.retry.delay:20}",
+                maxDelayExpression = "${shareit.retry.max-delay:200}",
+                multiplierExpression = "${shareit.retry.multiplier:2}",
+                random = true))
+public @interface RetryOnConflict {
+}
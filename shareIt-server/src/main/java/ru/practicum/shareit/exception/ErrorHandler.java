@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -48,9 +49,8 @@ public class ErrorHandler {
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleRequestParamException(final RequestParamException e) {
-        log.error(String.format(e.getParameter()));
-        return new ErrorResponse(
-                String.format(e.getParameter()));
+        log.error(e.getParameter());
+        return new ErrorResponse(e.getParameter());
     }
 
     @ExceptionHandler
@@ -101,6 +101,13 @@ public class ErrorHandler {
         return new ErrorResponse(message);
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(final OptimisticLockingFailureException e) {
+        log.error("Данные изменены другим запросом: {}", e.getMessage());
+        return new ErrorResponse("Данные изменены другим запросом, повторите попытку.");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
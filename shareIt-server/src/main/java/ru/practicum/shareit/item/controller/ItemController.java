@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.metrics.QueryBudget;
 import ru.practicum.shareit.exception.IncorrectIdException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -15,6 +16,7 @@ import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.validation.Valid;
@@ -37,6 +39,7 @@ public class ItemController {
      * метод получения списка всех вещей определенного пользователя
      */
     @GetMapping
+    @QueryBudget(7)
     public List<ItemDto> findAllItems(
             @RequestHeader("X-Sharer-User-Id") Integer userId,
             @RequestParam(value = "from", required = false, defaultValue = "0") Integer from,
@@ -46,27 +49,28 @@ public class ItemController {
         if ((from < 0) || (size <= 0))
             throw new ValidationException("неверно указаны параметры запросы from (д.б.>=0) или size (д.б.>0",
                     HttpStatus.BAD_REQUEST);
-        return itemService.findAllItems(userId, from, size)
-                .map(itemMapper::toItemDtoForOwner)
-                .getContent();
+        return itemMapper.toItemDtosForOwner(itemService.findAllItems(userId, from, size).getContent());
     }
 
     /**
      * метод получения данных о вещи по её ID
      */
     @GetMapping("/{id}")
+    @QueryBudget(4)
     public ItemDto findItemById(@RequestHeader(value = "X-Sharer-User-Id", required = false) Integer userId,
                                 @PathVariable("id") Long id) {
-        if ((userId != null) && (itemService.findItemById(id)).getOwner().getId().equals(userId)) {
-            return itemMapper.toItemDtoForOwner(itemService.findItemById(id));
+        Item item = itemService.findItemById(id);
+        if ((userId != null) && item.getOwner().getId().equals(userId)) {
+            return itemMapper.toItemDtoForOwner(item);
         }
-        return itemMapper.toItemDtoForBooker(itemService.findItemById(id));
+        return itemMapper.toItemDtoForBooker(item);
     }
 
     /**
      * метод поиска вещи по наименованию и описанию
      */
     @GetMapping("/search")
+    @QueryBudget(3)
     public List<ItemDto> findItem(
             @RequestParam(value = "text") String text,
             @RequestParam(value = "from", required = false, defaultValue = "0") Integer from,
@@ -115,13 +119,14 @@ public class ItemController {
     public CommentDto createComment(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                     @PathVariable("itemId") Long itemId,
                                     @Valid @RequestBody CommentRequestDto requestDto) {
-        if (userService.findUserById(userId) == null)
+        User author = userService.findUserById(userId);
+        if (author == null)
             throw new IncorrectIdException("UserID");
         if (itemService.checkUserBookedItemInPast(itemId, userId).isEmpty())
             throw new ValidationException("Пользователь не брал эту вещь в аренду. Комментарий оставить не получится.",
                     HttpStatus.BAD_REQUEST);
         Comment comment = commentMapper.toComment(
-                userService.findUserById(userId),
+                author,
                 itemService.findItemById(itemId),
                 requestDto);
         return commentMapper.toCommentDto(itemService.createComment(comment));
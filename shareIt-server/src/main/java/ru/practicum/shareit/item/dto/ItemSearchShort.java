@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Класс ItemSearchShort содержит поля вещи, по которым выполняется поиск (ID, название и описание).
+ * Используется в запросе-проекции при построении поискового индекса вещей.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemSearchShort {
+    private Long id;
+    private String name;
+    private String description;
+}
@@ -13,6 +13,7 @@ import java.util.Objects;
  */
 @Entity
 @Table(schema = "public", name = "comments")
+@NamedEntityGraph(name = Comment.WITH_AUTHOR, attributeNodes = @NamedAttributeNode("author"))
 @Getter
 @Setter
 @Builder
@@ -20,6 +21,10 @@ import java.util.Objects;
 @NoArgsConstructor
 @JsonPropertyOrder({"id", "text", "item_id", "author_id", "created"})
 public class Comment {
+    /**
+     * план загрузки отзыва вместе с автором - всё, что нужно CommentMapper.toCommentDto
+     */
+    public static final String WITH_AUTHOR = "Comment.withAuthor";
 
     /**
      * id — уникальный идентификатор отзыва;
@@ -38,14 +43,14 @@ public class Comment {
     /**
      * item — вещь, к которой относится комментарий;
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
 
     /**
      * author — автор комментария;
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
@@ -55,18 +60,20 @@ public class Comment {
     @Column(nullable = false)
     private LocalDateTime created;
 
+    /**
+     * вещь и автор загружаются лениво и в сравнении не участвуют
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Comment)) return false;
         Comment comment = (Comment) o;
-        return getText().equals(comment.getText()) && getItem().equals(comment.getItem())
-                && getAuthor().equals(comment.getAuthor()) && getCreated().equals(comment.getCreated());
+        return getText().equals(comment.getText()) && getCreated().equals(comment.getCreated());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getText(), getItem(), getAuthor(), getCreated());
+        return Objects.hash(getText(), getCreated());
     }
 }
 
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item.entity;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.request.entity.Request;
 import ru.practicum.shareit.user.entity.User;
 
@@ -15,10 +18,11 @@ import java.util.Objects;
  * Класс Item ("вещь") содержит описание вещи.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(schema = "public", name = "items")
 @Getter
 @Setter
-@Builder
 @JsonPropertyOrder({"id", "name", "description", "available", "owner", "request"})
 public class Item {
 
@@ -51,7 +55,7 @@ public class Item {
     /**
      * owner — владелец вещи;
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
@@ -59,10 +63,18 @@ public class Item {
      * request — если вещь была создана по запросу другого пользователя, то в этом поле будет храниться ссылка
      * на соответствующий запрос.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private Request request;
 
+    /**
+     * version — номер версии для оптимистической блокировки, увеличивается при каждом изменении вещи.
+     */
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    @Builder
     public Item(Long id, String name, String description, Boolean available, User owner, Request request) {
         this.id = id;
         this.name = name;
@@ -82,6 +94,10 @@ public class Item {
     public Item() {
     }
 
+    /**
+     * владелец и запрос загружаются лениво и в сравнении не участвуют: у отсоединённой вещи они могут быть
+     * незагруженными ссылками, обращение к которым вне сессии приводит к LazyInitializationException
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -90,13 +106,11 @@ public class Item {
         return Objects.equals(getId(), item.getId())
                 && getName().equals(item.getName())
                 && getDescription().equals(item.getDescription())
-                && getAvailable().equals(item.getAvailable())
-                && Objects.equals(getOwner(), item.getOwner())
-                && Objects.equals(getRequest(), item.getRequest());
+                && getAvailable().equals(item.getAvailable());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getId(), getName(), getDescription(), getAvailable(), getOwner(), getRequest());
+        return Objects.hash(getId(), getName(), getDescription(), getAvailable());
     }
 }
@@ -2,13 +2,17 @@ package ru.practicum.shareit.item.mapper;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemShort;
+import ru.practicum.shareit.item.entity.Comment;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.service.RequestService;
 
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -68,6 +72,34 @@ public class ItemMapper {
         if (item == null) {
             return null;
         }
+        return toItemDtoForOwner(item,
+                itemService.findLastBookingsOfItem(item.getId()),
+                itemService.findNextBookingsOfItem(item.getId()),
+                itemService.findAllCommentsByItem_Id(item.getId()));
+    }
+
+    /**
+     * Преобразует страницу вещей владельца: бронирования и комментарии загружаются для всех вещей сразу,
+     * поэтому число запросов к БД не зависит от размера страницы.
+     */
+    public List<ItemDto> toItemDtosForOwner(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        Map<Long, BookingDtoForOwner> lastBookings = itemService.findLastBookingsOfItems(itemIds);
+        Map<Long, BookingDtoForOwner> nextBookings = itemService.findNextBookingsOfItems(itemIds);
+        Map<Long, List<Comment>> comments = itemService.findAllCommentsByItemIds(itemIds);
+        return items.stream()
+                .map(item -> toItemDtoForOwner(item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        comments.getOrDefault(item.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private ItemDto toItemDtoForOwner(Item item, BookingDtoForOwner lastBooking, BookingDtoForOwner nextBooking,
+                                      List<Comment> comments) {
         return ItemDto
                 .builder()
                 .id(item.getId())
@@ -76,11 +108,9 @@ public class ItemMapper {
                 .available(item.getAvailable())
                 .owner(item.getOwner().getId())
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
-                .lastBooking(itemService.findLastBookingsOfItem(item.getId())
-                        != null ? itemService.findLastBookingsOfItem(item.getId()) : null)
-                .nextBooking(itemService.findNextBookingsOfItem(item.getId())
-                        != null ? itemService.findNextBookingsOfItem(item.getId()) : null)
-                .comments(itemService.findAllCommentsByItem_Id(item.getId())
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
+                .comments(comments
                         .stream()
                         .map(commentMapper::toCommentDto)
                         .collect(Collectors.toList()))
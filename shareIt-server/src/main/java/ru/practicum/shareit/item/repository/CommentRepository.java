@@ -1,12 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.entity.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(Comment.WITH_AUTHOR)
+    @Query("select c from Comment c where c.item.id = ?1")
     List<Comment> findAllByItem_id(Long itemId);
+
+    @EntityGraph(Comment.WITH_AUTHOR)
+    @Query("select c from Comment c where c.item.id in ?1 order by c.created")
+    List<Comment> findAllByItem_IdIn(Collection<Long> itemIds);
 }
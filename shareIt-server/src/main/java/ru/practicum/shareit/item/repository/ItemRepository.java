@@ -4,9 +4,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemSearchShort;
 import ru.practicum.shareit.item.entity.Item;
 
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,13 +16,20 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     @Query("select i from Item i " +
             "where ?1 is not null and i.available = true and " +
-            "(lower (i.name) like concat('%', ?1, '%') or lower (i.description) like concat('%', ?1, '%'))")
+            "(lower (i.name) like concat('%', ?1, '%') or lower (i.description) like concat('%', ?1, '%')) " +
+            "order by i.id")
     Page<Item> findInNameAndDescription(String text, Pageable page);
 
+    @Query("select new ru.practicum.shareit.item.dto.ItemSearchShort(i.id, i.name, i.description) from Item i " +
+            "where i.available = true and i.id > ?1 order by i.id")
+    List<ItemSearchShort> findAvailableItemsAfter(Long lastId, Pageable page);
+
     Page<Item> findByOwnerIdOrderByIdAsc(Integer userId, Pageable page);
 
-    @Query(value = "SELECT * FROM public.ITEMS WHERE request_id > 0",
-            nativeQuery = true)
-    List<Item> findByRequestNotNullOrderByIdAsc(Integer userId);
+    @Query("select i.id from Item i where i.owner.id = ?1")
+    List<Long> findIdsByOwnerId(Integer ownerId);
+
+    @Query("select i from Item i where i.request.id in ?1 order by i.id")
+    List<Item> findAllByRequest_IdIn(Collection<Long> requestIds);
 
 }
\ No newline at end of file
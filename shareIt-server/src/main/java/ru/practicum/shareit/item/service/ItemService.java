@@ -6,7 +6,9 @@ import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.item.entity.Comment;
 import ru.practicum.shareit.item.entity.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * интерфейс для работы с данными о Item
@@ -19,9 +21,9 @@ public interface ItemService {
     Page<Item> findAllItems(Integer userId, Integer from, Integer size);
 
     /**
-     * метод получения списка всех вещей определенного владельца
+     * метод получения вещей, созданных в ответ на запросы с указанными ID, сгруппированных по ID запроса
      */
-    List<Item> findAllItemsByOwnerAndRequest(Integer userId);
+    Map<Long, List<Item>> findAllItemsByRequestIds(Collection<Long> requestIds);
 
     /**
      * метод получения данных о вещи по её ID
@@ -63,6 +65,16 @@ public interface ItemService {
      */
     BookingDtoForOwner findNextBookingsOfItem(Long itemId);
 
+    /**
+     * метод получения предыдущих бронирований сразу для нескольких вещей (ключ — ID вещи)
+     */
+    Map<Long, BookingDtoForOwner> findLastBookingsOfItems(Collection<Long> itemIds);
+
+    /**
+     * метод получения следующих бронирований сразу для нескольких вещей (ключ — ID вещи)
+     */
+    Map<Long, BookingDtoForOwner> findNextBookingsOfItems(Collection<Long> itemIds);
+
     /**
      * метод создания нового комментариев к указанной вещи
      */
@@ -73,6 +85,11 @@ public interface ItemService {
      */
     List<Comment> findAllCommentsByItem_Id(Long itemId);
 
+    /**
+     * метод получения комментариев сразу для нескольких вещей (ключ — ID вещи)
+     */
+    Map<Long, List<Comment>> findAllCommentsByItemIds(Collection<Long> itemIds);
+
     /**
      * метод проверки, что пользователь действительно брал вещь в прошлом.
      */
@@ -1,39 +1,69 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.common.outbox.Outbox;
+import ru.practicum.shareit.common.outbox.OutboxEventType;
+import ru.practicum.shareit.common.retry.RetryOnConflict;
 import ru.practicum.shareit.exception.IncorrectIdException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.entity.Comment;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * класс для работы с данными о вещи Item при помощи репозитория
  */
 @Service
 @Slf4j
+@Timed("shareit.service")
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final Pageable FIRST_ROW = PageRequest.of(0, 1);
+    private static final String PG_TRGM_SEARCH = "pg-trgm";
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final Outbox outbox;
+
+    /**
+     * pg-trgm - поиск всегда выполняется базой данных, где его обслуживают индексы pg_trgm (postgresql/V3);
+     * иначе - поисковым индексом ItemSearchIndex, а запросы, которые он не обслуживает, - базой данных
+     */
+    @Value("${shareit.item-search.database:jpql}")
+    private String searchDatabase;
 
     @Transactional(readOnly = true)
     @Override
@@ -45,9 +75,14 @@ public class ItemServiceImpl implements ItemService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<Item> findAllItemsByOwnerAndRequest(Integer userId) {
-        log.info("Выполняется запрос на получение всех вещей определенного пользователя.");
-        return itemRepository.findByRequestNotNullOrderByIdAsc(userId);
+    public Map<Long, List<Item>> findAllItemsByRequestIds(Collection<Long> requestIds) {
+        log.info("Выполняется запрос на получение вещей для {} запросов.", requestIds.size());
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRepository.findAllByRequest_IdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(i -> i.getRequest().getId()));
     }
 
     @Transactional(readOnly = true)
@@ -63,22 +98,47 @@ public class ItemServiceImpl implements ItemService {
         log.info("Выполняется поиска вещи по наименованию и описанию");
         Pageable page = PageRequest.of(from / size, size);
         if (text != null && !text.isBlank() && !text.isEmpty()) {
-            return itemRepository.findInNameAndDescription(text.toLowerCase().trim(), page);
+            String query = text.toLowerCase().trim();
+            if (!PG_TRGM_SEARCH.equals(searchDatabase) && itemSearchIndex.canServe(query)) {
+                return findItemInIndex(query, page);
+            }
+            return itemRepository.findInNameAndDescription(query, page);
         }
         return Page.empty();
     }
 
+    private Page<Item> findItemInIndex(String query, Pageable page) {
+        long[] ids = itemSearchIndex.search(query);
+        int fromIndex = (int) Math.min(page.getOffset(), ids.length);
+        int toIndex = Math.min(fromIndex + page.getPageSize(), ids.length);
+        if (fromIndex == toIndex) {
+            return new PageImpl<>(List.of(), page, ids.length);
+        }
+        List<Long> pageIds = Arrays.stream(ids, fromIndex, toIndex).boxed().collect(Collectors.toList());
+        List<Item> items = itemRepository.findAllById(pageIds)
+                .stream()
+                .filter(i -> Boolean.TRUE.equals(i.getAvailable()))
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+        return new PageImpl<>(items, page, ids.length);
+    }
+
     @Transactional
     @Override
     public Item createItem(Integer userId, Item item) {
-        if (userService.findUserById(userId) == null) {
+        User owner = userService.findUserById(userId);
+        if (owner == null) {
             throw new IncorrectIdException("UserID");
         }
-        item.setOwner(userService.findUserById(userId));
-        log.info("Создан объект: {}", item);
-        return itemRepository.save(item);
+        item.setOwner(owner);
+        Item savedItem = itemRepository.save(item);
+        log.info("Создана вещь с ID: {}", savedItem.getId());
+        itemSearchIndex.index(savedItem);
+        outbox.record(OutboxEventType.ITEM_CREATED, savedItem);
+        return savedItem;
     }
 
+    @RetryOnConflict
     @Transactional
     @Override
     public Item updateItem(Integer userId, Long itemId, Item item) {
@@ -103,8 +163,11 @@ public class ItemServiceImpl implements ItemService {
         if (item.getRequest() != null) {
             dbItem.setRequest(item.getRequest());
         }
-        log.info("Обновлен объект: {}", dbItem);
-        return itemRepository.save(dbItem);
+        log.info("Обновлена вещь с ID: {}", dbItem.getId());
+        Item savedItem = itemRepository.save(dbItem);
+        itemSearchIndex.index(savedItem);
+        outbox.record(OutboxEventType.ITEM_UPDATED, savedItem);
+        return savedItem;
     }
 
     @Transactional
@@ -112,6 +175,9 @@ public class ItemServiceImpl implements ItemService {
     public void deleteItem(Long id) {
         log.info("Удалена вещь с ID: {}", id);
         itemRepository.deleteById(id);
+        itemSearchIndex.delete(id);
+        bookingIntervalIndex.deleteItems(List.of(id));
+        outbox.record(OutboxEventType.ITEM_DELETED, id);
     }
 
     @Override
@@ -124,59 +190,59 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("Размер описания не может превышать 200 символов", HttpStatus.BAD_REQUEST);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
     public BookingDtoForOwner findLastBookingsOfItem(Long itemId) {
-        Booking lastBooking = null;
-        LocalDateTime min = LocalDateTime.now().minus(1000, ChronoUnit.YEARS);
-        List<Booking> list = bookingRepository.findAllBookingsByItem_Id(itemId);
-        for (Booking b : list) {
-            if (b.getStart().isBefore(LocalDateTime.now()) && b.getEnd().isAfter(LocalDateTime.now())) {
-                lastBooking = b;
-            }
-            if ((b.getEnd().isAfter(min)) && (b.getEnd().isBefore(LocalDateTime.now()))) {
-                min = b.getEnd();
-                lastBooking = b;
-            }
-        }
-        if (lastBooking == null) {
-            return null;
-        } else {
-            return new BookingDtoForOwner(
-                    lastBooking.getId(),
-                    lastBooking.getStart(),
-                    lastBooking.getEnd(),
-                    lastBooking.getBooker().getId());
+        if (bookingIntervalIndex.isEnabled()) {
+            return toBookingDtoForOwner(new ArrayList<>(
+                    bookingIntervalIndex.findLastApproved(List.of(itemId), LocalDateTime.now()).values()));
         }
+        return toBookingDtoForOwner(bookingRepository.findLastBookingOfItem(
+                itemId, BookingStatus.APPROVED, LocalDateTime.now(), FIRST_ROW));
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
     public BookingDtoForOwner findNextBookingsOfItem(Long itemId) {
-        Booking nextBooking = null;
-        LocalDateTime max = LocalDateTime.now().plus(1000, ChronoUnit.YEARS);
-        List<Booking> list = bookingRepository.findAllBookingsByItem_Id(itemId);
-        for (Booking b : list) {
-            if ((b.getStart().isBefore(max)) && (b.getStart().isAfter(LocalDateTime.now()))) {
-                max = b.getStart();
-                nextBooking = b;
-            }
+        if (bookingIntervalIndex.isEnabled()) {
+            return toBookingDtoForOwner(new ArrayList<>(
+                    bookingIntervalIndex.findNextApproved(List.of(itemId), LocalDateTime.now()).values()));
         }
-        if (nextBooking == null) {
-            return null;
-        } else {
-            return new BookingDtoForOwner(
-                    nextBooking.getId(),
-                    nextBooking.getStart(),
-                    nextBooking.getEnd(),
-                    nextBooking.getBooker().getId());
+        return toBookingDtoForOwner(bookingRepository.findNextBookingOfItem(
+                itemId, BookingStatus.APPROVED, LocalDateTime.now(), FIRST_ROW));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, BookingDtoForOwner> findLastBookingsOfItems(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
         }
+        if (bookingIntervalIndex.isEnabled()) {
+            return toBookingDtoForOwnerMap(bookingIntervalIndex.findLastApproved(itemIds, LocalDateTime.now()).values());
+        }
+        return toBookingDtoForOwnerMap(bookingRepository.findLastBookingsOfItems(
+                itemIds, BookingStatus.APPROVED, LocalDateTime.now()));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, BookingDtoForOwner> findNextBookingsOfItems(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        if (bookingIntervalIndex.isEnabled()) {
+            return toBookingDtoForOwnerMap(bookingIntervalIndex.findNextApproved(itemIds, LocalDateTime.now()).values());
+        }
+        return toBookingDtoForOwnerMap(bookingRepository.findNextBookingsOfItems(
+                itemIds, BookingStatus.APPROVED, LocalDateTime.now()));
     }
 
     @Override
     public Comment createComment(Comment comment) {
-        log.info("Создан новый комментарий: {}", comment);
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        log.info("Создан новый комментарий с ID: {}", savedComment.getId());
+        return savedComment;
     }
 
     @Override
@@ -185,10 +251,37 @@ public class ItemServiceImpl implements ItemService {
         return commentRepository.findAllByItem_id(itemId);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, List<Comment>> findAllCommentsByItemIds(Collection<Long> itemIds) {
+        log.info("Выполняется запрос на получение комментариев для {} вещей.", itemIds.size());
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findAllByItem_IdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<Booking> checkUserBookedItemInPast(Long itemId, Integer userId) {
         return bookingRepository.findByItem_idAndBooker_idAndEnd_dateIsBefore(itemId, userId, LocalDateTime.now());
     }
-}
 
+    private static BookingDtoForOwner toBookingDtoForOwner(List<BookingShort> bookings) {
+        if (bookings.isEmpty()) {
+            return null;
+        }
+        BookingShort b = bookings.get(0);
+        return new BookingDtoForOwner(b.getId(), b.getStart(), b.getEnd(), b.getBookerId());
+    }
+
+    private static Map<Long, BookingDtoForOwner> toBookingDtoForOwnerMap(Collection<BookingShort> bookings) {
+        Map<Long, BookingDtoForOwner> result = new HashMap<>();
+        for (BookingShort b : bookings) {
+            result.putIfAbsent(b.getItemId(), new BookingDtoForOwner(b.getId(), b.getStart(), b.getEnd(), b.getBookerId()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,290 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSearchShort;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Класс ItemSearchIndex - инвертированный индекс доступных вещей в памяти приложения для поиска /items/search.
+ * Название и описание вещи разбиваются на триграммы (подстроки из трёх символов), для каждой триграммы хранится
+ * отсортированный массив ID вещей. Поиск пересекает массивы триграмм запроса и проверяет найденных кандидатов
+ * на вхождение подстроки, поэтому результат совпадает с запросом lower(...) like '%text%' к базе данных.
+ * Запросы короче трёх символов и запросы со спецсимволами LIKE индекс не обслуживает.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    /**
+     * минимальная длина запроса, который может обслужить индекс
+     */
+    public static final int GRAM_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final long[] NO_IDS = new long[0];
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.item-search.index.enabled:true}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * метод заполнения индекса всеми доступными вещами из базы данных при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            postings.clear();
+            Pageable batch = PageRequest.of(0, LOAD_BATCH_SIZE);
+            long lastId = 0L;
+            List<ItemSearchShort> loaded;
+            do {
+                loaded = itemRepository.findAvailableItemsAfter(lastId, batch);
+                for (ItemSearchShort item : loaded) {
+                    add(item.getId(), item.getName(), item.getDescription());
+                    lastId = item.getId();
+                }
+            } while (loaded.size() == LOAD_BATCH_SIZE);
+            ready = true;
+            log.info("Поисковый индекс вещей построен: {} вещей, {} триграмм.", items.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * метод проверки, может ли индекс обслужить поисковый запрос
+     *
+     * @param query строка поиска в нижнем регистре
+     */
+    public boolean canServe(String query) {
+        return enabled && ready && query.length() >= GRAM_LENGTH
+                && query.indexOf('%') < 0 && query.indexOf('_') < 0 && query.indexOf('\\') < 0;
+    }
+
+    /**
+     * метод поиска ID доступных вещей, в названии или описании которых есть строка поиска
+     *
+     * @param query строка поиска в нижнем регистре
+     * @return отсортированный по возрастанию массив ID вещей
+     */
+    public long[] search(String query) {
+        long[] grams = distinctGrams(query);
+        if (grams.length == 0) {
+            return NO_IDS;
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return NO_IDS;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+            long[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = retainAll(candidates, count, lists[i]);
+            }
+            int found = 0;
+            for (int i = 0; i < count; i++) {
+                if (items.get(candidates[i]).contains(query)) {
+                    candidates[found++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * метод обновления вещи в индексе после фиксации текущей транзакции
+     */
+    public void index(Item item) {
+        Long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        afterCommit(() -> {
+            remove(id);
+            if (available) {
+                add(id, name, description);
+            }
+        });
+    }
+
+    /**
+     * метод удаления вещи из индекса после фиксации текущей транзакции
+     */
+    public void delete(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!enabled) {
+            return;
+        }
+        Runnable locked = () -> {
+            lock.writeLock().lock();
+            try {
+                change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    locked.run();
+                }
+            });
+        } else {
+            locked.run();
+        }
+    }
+
+    private void add(Long id, String name, String description) {
+        IndexedItem item = new IndexedItem(lower(name), lower(description));
+        items.put(id, item);
+        for (long gram : item.grams()) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        IndexedItem item = items.remove(id);
+        if (item == null) {
+            return;
+        }
+        for (long gram : item.grams()) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(id) == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static int retainAll(long[] candidates, int count, Postings list) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (Arrays.binarySearch(list.ids, 0, list.size, candidates[i]) >= 0) {
+                candidates[kept++] = candidates[i];
+            }
+        }
+        return kept;
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    private static long[] distinctGrams(String... texts) {
+        int total = 0;
+        for (String text : texts) {
+            total += Math.max(0, text.length() - GRAM_LENGTH + 1);
+        }
+        long[] grams = new long[total];
+        int count = 0;
+        for (String text : texts) {
+            for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                grams[count++] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+            }
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * название и описание вещи в нижнем регистре
+     */
+    private static final class IndexedItem {
+        private final String name;
+        private final String description;
+
+        private IndexedItem(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        private boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        private long[] grams() {
+            return distinctGrams(name, description);
+        }
+    }
+
+    /**
+     * отсортированный по возрастанию массив ID вещей, содержащих триграмму
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int position = size;
+            if (size > 0 && ids[size - 1] >= id) {
+                position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                position = -position - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private int remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                size--;
+            }
+            return size;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.metrics.QueryBudget;
 import ru.practicum.shareit.exception.IncorrectIdException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.dto.IncomingRequestDto;
@@ -14,7 +15,6 @@ import ru.practicum.shareit.user.service.UserService;
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Класс-контроллер по запросам на вещь ItemRequest
@@ -32,19 +32,18 @@ public class RequestController {
      * метод получения списка всех запросов, сделанных пользователем, вместе с данными об ответах на них.
      */
     @GetMapping
+    @QueryBudget(3)
     public List<RequestDto> findAllRequestsByUserId(@RequestHeader("X-Sharer-User-Id") Integer userId) {
         if (userService.findUserById(userId) == null)
             throw new IncorrectIdException("UserID");
-        return requestService.findAllRequestsByRequestor_id(userId)
-                .stream()
-                .map(requestMapper::toRequestDto)
-                .collect(Collectors.toList());
+        return requestMapper.toRequestDtos(requestService.findAllRequestsByRequestor_id(userId));
     }
 
     /**
      * метод получения данных о запросе по его ID
      */
     @GetMapping("/{requestId}")
+    @QueryBudget(3)
     public RequestDto findRequestById(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                       @PathVariable("requestId") Long requestId) {
         if (userService.findUserById(userId) == null)
@@ -56,6 +55,7 @@ public class RequestController {
      * метод получения списка запросов, созданных другими пользователями (Pageable).
      */
     @GetMapping("/all")
+    @QueryBudget(5)
     public List<RequestDto> findAllRequestsPageAble(
             @RequestHeader("X-Sharer-User-Id") Integer userId,
             @RequestParam(value = "from", required = false, defaultValue = "0") Integer from,
@@ -65,7 +65,7 @@ public class RequestController {
                     HttpStatus.BAD_REQUEST);
         if (userService.findUserById(userId) == null)
             throw new IncorrectIdException("UserID");
-        return (requestService.findAllRequestsPageAble(userId, from, size).map(requestMapper::toRequestDto).getContent());
+        return requestMapper.toRequestDtos(requestService.findAllRequestsPageAble(userId, from, size).getContent());
 
     }
 
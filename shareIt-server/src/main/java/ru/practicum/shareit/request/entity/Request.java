@@ -2,6 +2,8 @@ package ru.practicum.shareit.request.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.entity.User;
 
 import javax.persistence.*;
@@ -13,6 +15,8 @@ import java.util.Objects;
  * Класс ItemRequest отвечает за запрос вещи.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(schema = "public", name = "requests")
 @Getter
 @Setter
@@ -39,7 +43,7 @@ public class Request {
     /**
      * requestor — пользователь, создавший запрос;
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id", nullable = false)
     private User requestor;
 
@@ -51,19 +55,21 @@ public class Request {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime created;
 
+    /**
+     * автор запроса загружается лениво и в сравнении не участвует
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Request)) return false;
         Request request = (Request) o;
         return Objects.equals(getDescription(), request.getDescription())
-                && Objects.equals(getRequestor(), request.getRequestor())
                 && Objects.equals(getCreated(), request.getCreated());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getDescription(), getRequestor(), getCreated());
+        return Objects.hash(getDescription(), getCreated());
     }
 }
 
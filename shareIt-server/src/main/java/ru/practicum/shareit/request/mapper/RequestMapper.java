@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.mapper;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.IncomingRequestDto;
@@ -10,6 +11,8 @@ import ru.practicum.shareit.request.entity.Request;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -37,14 +40,31 @@ public class RequestMapper {
         if (request == null) {
             return null;
         }
+        return toRequestDto(request, itemService.findAllItemsByRequestIds(List.of(request.getId()))
+                .getOrDefault(request.getId(), List.of()));
+    }
+
+    /**
+     * метод преобразования списка запросов: вещи для всех запросов загружаются одним обращением к базе данных
+     */
+    public List<RequestDto> toRequestDtos(List<Request> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<Item>> items = itemService.findAllItemsByRequestIds(
+                requests.stream().map(Request::getId).collect(Collectors.toList()));
+        return requests.stream()
+                .map(r -> toRequestDto(r, items.getOrDefault(r.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private RequestDto toRequestDto(Request request, List<Item> items) {
         return new RequestDto(
                 request.getId(),
                 request.getDescription(),
                 request.getCreated(),
-                itemService.findAllItemsByOwnerAndRequest(request.getRequestor().getId())
-                .stream()
-                .map(itemMapper::toItemDtoForRequest)
-                .collect(Collectors.toList()));
+                items.stream()
+                        .map(itemMapper::toItemDtoForRequest)
+                        .collect(Collectors.toList()));
     }
 }
-
@@ -17,6 +17,7 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
     List<Request> findAllRequestsByRequestor_id(Integer userId);
 
     @Query(value = "SELECT * FROM public.REQUESTS r WHERE r.requestor_id NOT IN (?1) ORDER BY r.created DESC",
+            countQuery = "SELECT count(*) FROM public.REQUESTS r WHERE r.requestor_id NOT IN (?1)",
             nativeQuery = true)
     Page<Request> findAllRequestsPageable(Integer requestorId, Pageable page);
 
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -18,11 +19,12 @@ import java.util.List;
  */
 @Service
 @Slf4j
+@Timed("shareit.service")
 @RequiredArgsConstructor
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
     public Page<Request> findAllRequestsPageAble(Integer userId, Integer from, Integer size) {
         Pageable page = PageRequest.of(from / size, size);
@@ -30,13 +32,13 @@ public class RequestServiceImpl implements RequestService {
         return requestPage;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
     public List<Request> findAllRequestsByRequestor_id(Integer userId) {
         return requestRepository.findAllRequestsByRequestor_id(userId);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
     public Request findRequestById(Long requestId) {
         return requestRepository.findById(requestId).orElseThrow(() -> new IncorrectIdException("RequestID"));
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.metrics.QueryBudget;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.entity.User;
@@ -28,6 +29,7 @@ public class UserController {
      * метод получения списка всех пользователей
      */
     @GetMapping
+    @QueryBudget(1)
     public List<UserDto> findAllUsers() {
         return userService.findAllUsers()
                 .stream()
@@ -39,6 +41,7 @@ public class UserController {
      * метод получения данных о пользователе по его ID
      */
     @GetMapping("/{id}")
+    @QueryBudget(1)
     public UserDto findUserById(@PathVariable("id") Integer id) {
         return mapper.toUserDto(userService.findUserById(id));
     }
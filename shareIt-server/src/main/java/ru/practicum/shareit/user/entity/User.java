@@ -2,6 +2,8 @@ package ru.practicum.shareit.user.entity;
 
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.Objects;
@@ -10,6 +12,8 @@ import java.util.Objects;
  * Класс User содержит информацию о пользователях (user).
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(schema = "public", name = "users", uniqueConstraints =
         @UniqueConstraint(name = "UQ_USER_EMAIL", columnNames = {"email"}))
 @Getter
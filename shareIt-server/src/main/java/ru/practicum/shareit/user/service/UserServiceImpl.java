@@ -1,26 +1,43 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.common.cache.CacheConfig;
 import ru.practicum.shareit.exception.IncorrectIdException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.request.entity.Request;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 
 /**
- * класс для работы с данными о пользователе User при помощи репозитория
+ * класс для работы с данными о пользователе User при помощи репозитория.
+ * Пользователи, найденные по ID, хранятся в кэше users, чтобы повторные проверки пользователя в контроллерах,
+ * маппере и сервисах не обращались к базе данных.
  */
 @Service
 @Slf4j
+@Timed("shareit.service")
 @RequiredArgsConstructor
 class UserServiceImpl implements UserService {
     String message;
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Transactional(readOnly = true)
     @Override
@@ -29,6 +46,7 @@ class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
     @Transactional(readOnly = true)
     @Override
     public User findUserById(Integer id) {
@@ -39,15 +57,18 @@ class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public User createUser(User user) {
-        log.info("Создан объект: {}", user);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        log.info("Создан пользователь с ID: {}", savedUser.getId());
+        return savedUser;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     @Transactional
     @Override
     public User updateUser(User user, Integer id) {
         validateUserPatchRequest(user);
-        User dbUser = findUserById(id);
+        log.info("Выполняется запрос на получение пользователя по ID: {}", id);
+        User dbUser = userRepository.findById(id).orElseThrow(() -> new IncorrectIdException("UserID"));
         if ((user.getName() != null) && (!user.getName().isBlank())) {
             dbUser.setName(user.getName());
         }
@@ -62,15 +83,27 @@ class UserServiceImpl implements UserService {
                 throw new ValidationException(message, HttpStatus.CONFLICT);
             }
         }
-        log.info("Обновлен объект: {}", dbUser);
+        log.info("Обновлен пользователь с ID: {}", dbUser.getId());
         return userRepository.save(dbUser);
     }
 
+    /**
+     * вместе с пользователем база данных каскадно удаляет его вещи и запросы в обход Hibernate, поэтому вещи
+     * и запросы во втором уровне кэша Hibernate очищаются целиком, а вещи и бронирования
+     * пользователя удаляются из поискового индекса и расписаний бронирований после фиксации транзакции
+     */
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     @Transactional
     @Override
     public void deleteUser(Integer id) {
         log.info("Удален пользователь с ID: {}", id);
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(id);
         userRepository.deleteById(id);
+        itemIds.forEach(itemSearchIndex::delete);
+        bookingIntervalIndex.deleteItems(itemIds);
+        bookingIntervalIndex.deleteBooker(id);
+        entityManagerFactory.getCache().evict(Item.class);
+        entityManagerFactory.getCache().evict(Request.class);
     }
 
     @Override
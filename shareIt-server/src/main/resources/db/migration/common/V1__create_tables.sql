@@ -1,9 +1,3 @@
-DROP TABLE if exists comments;
-DROP TABLE if exists requests;
-DROP TABLE if exists bookings;
-DROP TABLE if exists items;
-DROP TABLE if exists users;
-
 CREATE TABLE IF NOT EXISTS users (                 -- создание таблицы пользователей users
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(30) NOT NULL,
@@ -0,0 +1,18 @@
+-- индексы под запросы репозиториев BookingRepository, ItemRepository, CommentRepository и RequestRepository
+
+-- бронирования пользователя: фильтр по booker_id, сортировка и курсор по (start_date, id)
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings (booker_id, start_date, id);
+-- бронирования вещи: последнее/следующее бронирование, проверка перед отзывом, бронирования владельца
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+-- вещи владельца, отсортированные по id
+CREATE INDEX IF NOT EXISTS idx_items_owner_id_id ON items (owner_id, id);
+-- вещи, созданные в ответ на запросы
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+-- отзывы о вещи, отсортированные по дате
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created);
+
+-- запросы пользователя и запросы других пользователей, отсортированные по дате
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC);
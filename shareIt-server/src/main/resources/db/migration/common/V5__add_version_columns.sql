@@ -0,0 +1,3 @@
+-- номера версий для оптимистической блокировки вещей и бронирований (@Version в Item и Booking)
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS outbox_events (                 -- создание таблицы исходящих событий outbox_events
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  type VARCHAR(50) NOT NULL,
+  aggregate_id BIGINT NOT NULL,
+  payload VARCHAR(2000) NOT NULL,
+  created timestamp NOT NULL,
+  published timestamp,
+  attempts INT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
+
+-- неотправленные события в порядке записи - выборка OutboxRelay; отправленные - очистка по дате
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published_id ON outbox_events (published, id);
@@ -0,0 +1,9 @@
+-- тип изменённого объекта (BOOKING, ITEM): события одного объекта отправляются по порядку
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS aggregate_type VARCHAR(20);
+UPDATE outbox_events SET aggregate_type = CASE WHEN type LIKE 'BOOKING%' THEN 'BOOKING' ELSE 'ITEM' END;
+ALTER TABLE outbox_events ALTER COLUMN aggregate_type SET NOT NULL;
+-- время следующей попытки отправки: после неудачи - с нарастающей задержкой, во время отправки - срок захвата
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS next_attempt_at timestamp;
+
+-- поиск более раннего неотправленного события того же объекта
+CREATE INDEX IF NOT EXISTS idx_outbox_events_aggregate ON outbox_events (aggregate_type, aggregate_id, id);
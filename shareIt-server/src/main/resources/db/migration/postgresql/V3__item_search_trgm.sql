@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;          -- триграммы для поиска вещей по подстроке (только PostgreSQL)
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm
+    ON items USING gin (lower(name) gin_trgm_ops) WHERE available;
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm
+    ON items USING gin (lower(description) gin_trgm_ops) WHERE available;
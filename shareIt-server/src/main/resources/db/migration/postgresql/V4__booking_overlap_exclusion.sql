@@ -0,0 +1,35 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;       -- равенство item_id в GiST-индексе (только PostgreSQL)
+
+-- до этой миграции ничто не запрещало подтверждать пересекающиеся бронирования одной вещи; на таких данных
+-- ограничение не создаётся, поэтому миграция останавливается и перечисляет бронирования, которые нужно
+-- исправить вручную (изменить статус или даты одного бронирования каждой пары) перед повторным запуском
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(pair, ', ') INTO conflicts
+    FROM (SELECT a.id || '/' || b.id AS pair
+          FROM bookings a
+                   JOIN bookings b ON a.item_id = b.item_id AND a.id < b.id
+          WHERE a.status = 'APPROVED' AND b.status = 'APPROVED'
+            AND a.start_date <= a.end_date AND b.start_date <= b.end_date
+            AND tsrange(a.start_date, a.end_date) && tsrange(b.start_date, b.end_date)
+          UNION ALL
+          SELECT id::text
+          FROM bookings
+          WHERE status = 'APPROVED' AND start_date > end_date) AS invalid;
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Подтверждённые бронирования пересекаются или начинаются позже окончания: %', conflicts
+            USING HINT = 'Найдите их запросом SELECT a.id, b.id FROM bookings a JOIN bookings b '
+                || 'ON a.item_id = b.item_id AND a.id < b.id WHERE a.status = ''APPROVED'' '
+                || 'AND b.status = ''APPROVED'' AND tsrange(a.start_date, a.end_date) && '
+                || 'tsrange(b.start_date, b.end_date), исправьте статус или даты одного бронирования '
+                || 'каждой пары и запустите миграцию повторно';
+    END IF;
+END $$;
+
+-- подтверждённые бронирования одной вещи не пересекаются: полуинтервалы [start_date, end_date)
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_approved_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status = 'APPROVED');
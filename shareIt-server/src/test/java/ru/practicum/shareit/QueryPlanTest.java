@@ -0,0 +1,140 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+/**
+ * Проверка планов выполнения (EXPLAIN) всех запросов, объявленных в репозиториях.
+ * Каждый метод репозитория вызывается на H2, перехваченный SQL передаётся в EXPLAIN,
+ * и тест падает, если хотя бы одна таблица читается полным сканированием (tableScan).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$SqlCollector")
+class QueryPlanTest {
+    /**
+     * поиск подстроки '%text%' не может использовать B-tree индекс: в PostgreSQL поиск вещей обслуживают
+     * индексы pg_trgm (миграция postgresql/V3), в приложении - поисковый индекс ItemSearchIndex
+     */
+    private static final Set<String> SUBSTRING_SEARCHES = Set.of(
+            "findInNameAndDescription", "findByEmailContainingIgnoreCase");
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueries_whenExplained_thenNoTableScan() {
+        Map<Class<?>, Object> repositories = Map.of(
+                BookingRepository.class, bookingRepository,
+                ItemRepository.class, itemRepository,
+                CommentRepository.class, commentRepository,
+                RequestRepository.class, requestRepository,
+                UserRepository.class, userRepository);
+        List<DynamicTest> tests = new ArrayList<>();
+        repositories.forEach((type, repository) -> Arrays.stream(type.getDeclaredMethods())
+                .filter(m -> !m.isBridge() && !SUBSTRING_SEARCHES.contains(m.getName()))
+                .sorted(Comparator.comparing(Method::getName))
+                .forEach(m -> tests.add(dynamicTest(type.getSimpleName() + "." + m.getName(),
+                        () -> assertIndexedPlans(repository, m)))));
+        return tests.stream();
+    }
+
+    private void assertIndexedPlans(Object repository, Method method) throws Exception {
+        STATEMENTS.clear();
+        method.invoke(repository, Arrays.stream(method.getParameterTypes()).map(QueryPlanTest::argument).toArray());
+        assertFalse(STATEMENTS.isEmpty(), "Запрос не выполнен: " + method.getName());
+        for (String sql : STATEMENTS) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), method.getName() + " читает таблицу целиком:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query("EXPLAIN " + sql,
+                ps -> {
+                    for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                        ps.setObject(i, null);
+                    }
+                },
+                rs -> {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                });
+    }
+
+    private static Object argument(Class<?> type) {
+        if (type == Long.class) {
+            return 1L;
+        }
+        if (type == Integer.class) {
+            return 1;
+        }
+        if (type == String.class) {
+            return "x";
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == BookingStatus.class) {
+            return BookingStatus.APPROVED;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(1L, 2L);
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 10);
+        }
+        throw new IllegalArgumentException("Нет тестового значения для параметра типа " + type);
+    }
+
+    /**
+     * перехватчик Hibernate, сохраняющий SQL всех выполненных запросов
+     */
+    public static class SqlCollector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
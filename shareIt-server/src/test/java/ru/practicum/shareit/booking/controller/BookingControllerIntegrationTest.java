@@ -21,13 +21,17 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.booking.enums.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.enums.BookingStatus.WAITING;
 
 @SpringBootTest
@@ -85,7 +89,7 @@ class BookingControllerIntegrationTest {
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$.[0].id").value(1))
+                .andExpect(jsonPath("$.[0].id").value(booking.getId()))
                 .andExpect(jsonPath("$.[0].item.name").value("Дрель"));
     }
 
@@ -122,4 +126,62 @@ class BookingControllerIntegrationTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertEquals(RequestParamException.class, Objects.requireNonNull(result.getResolvedException()).getClass()));
     }
+
+    @SneakyThrows
+    @Test
+    void approveBooking_whenPeriodOverlapsApprovedBooking_thenConflict() {
+        User owner = userService.createUser(new User(null, "Billy", "email55@yandex.com"));
+        User booker = userService.createUser(new User(null, "Felix", "felix@yandex.com"));
+        Item item = itemService.createItem(owner.getId(),
+                Item.builder()
+                        .name("Дрель")
+                        .description("Простая дрель")
+                        .owner(owner)
+                        .available(true)
+                        .request(null)
+                        .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Booking first = bookingService.createBooking(
+                Booking.builder()
+                        .start(start)
+                        .end(start.plusHours(2))
+                        .item(item)
+                        .booker(booker)
+                        .status(WAITING)
+                        .build());
+        Booking second = bookingService.createBooking(
+                Booking.builder()
+                        .start(start.plusHours(1))
+                        .end(start.plusHours(3))
+                        .item(item)
+                        .booker(booker)
+                        .status(WAITING)
+                        .build());
+
+        mockMvc.perform(
+                        patch("/bookings/{id}", first.getId())
+                                .header("X-Sharer-User-Id", owner.getId())
+                                .param("approved", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(APPROVED.toString()));
+        mockMvc.perform(
+                        patch("/bookings/{id}", second.getId())
+                                .header("X-Sharer-User-Id", owner.getId())
+                                .param("approved", "true"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(
+                        post("/bookings")
+                                .header("X-Sharer-User-Id", booker.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"itemId\": " + item.getId() + ", \"start\": \"" + start.plusMinutes(30)
+                                        + "\", \"end\": \"" + start.plusHours(4) + "\"}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(
+                        post("/bookings")
+                                .header("X-Sharer-User-Id", booker.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"itemId\": " + item.getId() + ", \"start\": \"" + start.plusHours(2)
+                                        + "\", \"end\": \"" + start.plusHours(4) + "\"}"))
+                .andExpect(status().isOk());
+    }
 }
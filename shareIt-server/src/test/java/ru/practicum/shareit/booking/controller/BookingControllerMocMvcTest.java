@@ -8,11 +8,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.IncorrectIdException;
@@ -120,12 +124,10 @@ class BookingControllerMocMvcTest {
     @Test
     void findAllBookings_whenStateIsNull_thenReturnListLength1() {
         User user = createTestUser();
-        Booking booking = createTestBooking();
         BookingDto bookingDto = createTestBookingDto();
         Mockito.when(userService.findUserById(anyInt())).thenReturn(user);
         Mockito.when(bookingService.findAllBookingsForBooker(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
-        Mockito.when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
+                .thenReturn(new PageImpl<>(List.of(bookingDto)));
 
         String result = mockMvc.perform(
                         get("/bookings")
@@ -145,12 +147,10 @@ class BookingControllerMocMvcTest {
     @Test
     void findAllBookings_whenStateIsNotNull_thenReturnListLength1() {
         User user = createTestUser();
-        Booking booking = createTestBooking();
         BookingDto bookingDto = createTestBookingDto();
         Mockito.when(userService.findUserById(anyInt())).thenReturn(user);
         Mockito.when(bookingService.findAllBookingsForBooker(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
-        Mockito.when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
+                .thenReturn(new PageImpl<>(List.of(bookingDto)));
 
         String result = mockMvc.perform(
                         get("/bookings")
@@ -167,16 +167,71 @@ class BookingControllerMocMvcTest {
         assertEquals(objectMapper.writeValueAsString(List.of(bookingDto)), result);
     }
 
+    @SneakyThrows
+    @Test
+    void findAllBookingsByCursor_whenSliceHasNext_thenReturnNextCursorHeader() {
+        User user = createTestUser();
+        BookingDto bookingDto = createTestBookingDto();
+        Mockito.when(userService.findUserById(anyInt())).thenReturn(user);
+        Mockito.when(bookingService.findBookingsForBookerAfter(user.getId(), State.ALL, BookingCursor.FIRST, 1))
+                .thenReturn(new SliceImpl<>(List.of(bookingDto), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(
+                        get("/bookings")
+                                .header("X-Sharer-User-Id", user.getId())
+                                .param("cursor", "")
+                                .param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.after(bookingDto).encode()));
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllBookingsForOwnerByCursor_whenLastSlice_thenNoNextCursorHeader() {
+        User user = createTestUser();
+        BookingDto bookingDto = createTestBookingDto();
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2030, 1, 1, 10, 0), 7L);
+        Mockito.when(userService.findUserById(anyInt())).thenReturn(user);
+        Mockito.when(bookingService.findBookingsForOwnerAfter(user.getId(), State.WAITING, cursor, 10))
+                .thenReturn(new SliceImpl<>(List.of(bookingDto), PageRequest.of(0, 10), false));
+
+        mockMvc.perform(
+                        get("/bookings/owner")
+                                .header("X-Sharer-User-Id", user.getId())
+                                .param("state", "WAITING")
+                                .param("cursor", cursor.encode()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @SneakyThrows
+    @Test
+    void findAllBookingsByCursor_whenCursorIsNotValid_thenExceptionThrows() {
+        User user = createTestUser();
+        Mockito.when(userService.findUserById(anyInt())).thenReturn(user);
+
+        mockMvc.perform(
+                        get("/bookings")
+                                .header("X-Sharer-User-Id", user.getId())
+                                .param("cursor", "%%%"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertEquals(
+                        RequestParamException.class, Objects.requireNonNull(result.getResolvedException()).getClass()));
+    }
+
     @SneakyThrows
     @Test
     void findAllBookings_whenUserIsNotFound_thenExceptionThrows() {
         User user = createTestUser();
-        Booking booking = createTestBooking();
         BookingDto bookingDto = createTestBookingDto();
         Mockito.when(userService.findUserById(anyInt())).thenReturn(null);
         Mockito.when(bookingService.findAllBookingsForBooker(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
-        Mockito.when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
+                .thenReturn(new PageImpl<>(List.of(bookingDto)));
 
         mockMvc.perform(
                         get("/bookings")
@@ -226,12 +281,10 @@ class BookingControllerMocMvcTest {
     @Test
     void findAllBookingsForOwner_whenStateIsNull_thenReturnListLength1() {
         User user = createTestUser();
-        Booking booking = createTestBooking();
         BookingDto bookingDto = createTestBookingDto();
         Mockito.when(userService.findUserById(anyInt())).thenReturn(user);
         Mockito.when(bookingService.findAllBookingsForOwner(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
-        Mockito.when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
+                .thenReturn(new PageImpl<>(List.of(bookingDto)));
 
         String result = mockMvc.perform(
                         get("/bookings/owner")
@@ -252,12 +305,10 @@ class BookingControllerMocMvcTest {
     @Test
     void findAllBookingsForOwner_whenStateIsNotNull_thenReturnListLength1() {
         User user = createTestUser();
-        Booking booking = createTestBooking();
         BookingDto bookingDto = createTestBookingDto();
         Mockito.when(userService.findUserById(anyInt())).thenReturn(user);
         Mockito.when(bookingService.findAllBookingsForOwner(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
-        Mockito.when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
+                .thenReturn(new PageImpl<>(List.of(bookingDto)));
 
         String result = mockMvc.perform(
                         get("/bookings/owner")
@@ -278,12 +329,10 @@ class BookingControllerMocMvcTest {
     @Test
     void findAllBookingsForOwner_whenUserIsNotFound_thenExceptionThrows() {
         User user = createTestUser();
-        Booking booking = createTestBooking();
         BookingDto bookingDto = createTestBookingDto();
         Mockito.when(userService.findUserById(anyInt())).thenReturn(null);
         Mockito.when(bookingService.findAllBookingsForOwner(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
-        Mockito.when(bookingMapper.toBookingDto(booking)).thenReturn(bookingDto);
+                .thenReturn(new PageImpl<>(List.of(bookingDto)));
 
         mockMvc.perform(
                         get("/bookings/owner")
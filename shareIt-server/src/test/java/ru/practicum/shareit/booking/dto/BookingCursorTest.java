@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.RequestParamException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingCursorTest {
+    @Test
+    void decode_whenCursorIsEncoded_thenReturnSameCursor() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2023, 1, 10, 12, 30, 15, 123000000), 42L);
+
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()), "Не равны");
+    }
+
+    @Test
+    void decode_whenCursorIsEmpty_thenReturnFirstPageCursor() {
+        assertEquals(BookingCursor.FIRST, BookingCursor.decode(""), "Не равны");
+    }
+
+    @Test
+    void decode_whenCursorIsNotValid_thenExceptionThrown() {
+        assertThrows(RequestParamException.class, () -> BookingCursor.decode("not a cursor"));
+        assertThrows(RequestParamException.class, () -> BookingCursor.decode("MjAyMy0wMS0xMA"));
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.booking.enums.BookingStatus.APPROVED;
+
+/**
+ * Замер числа SQL-запросов при получении бронирований: страница владельца (GET /bookings/owner) читается
+ * одним запросом сразу в BookingDto без загрузки сущностей, бронирование по ID - вместе с вещью.
+ */
+@SpringBootTest
+class BookingListingQueryCountTest {
+    private static final int BOOKINGS_COUNT = 10;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(new User(null, "Billy", "email55@yandex.com"));
+        User booker = userRepository.save(new User(null, "Felix", "felix@yandex.com"));
+        Item drill = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null));
+        Item saw = itemRepository.save(new Item(null, "Пила", "Острая пила", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < BOOKINGS_COUNT; i++) {
+            bookingRepository.save(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    i % 2 == 0 ? drill : saw, booker, APPROVED));
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void resetDb() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findAllBookingsToOwnerPageable_whenPageIsRead_thenOneQueryWithoutEntities() {
+        statistics.clear();
+
+        List<BookingDto> page = bookingRepository.findAllBookingsToOwnerPageable(owner.getId(),
+                PageRequest.of(0, BOOKINGS_COUNT + 1)).getContent();
+
+        assertEquals(BOOKINGS_COUNT, page.size(), "Не равны");
+        assertEquals(1, statistics.getPrepareStatementCount(), "Не равны");
+        assertEquals(0, statistics.getEntityLoadCount(), "Не равны");
+        assertEquals("Пила", page.get(0).getItem().getName(), "Не равны");
+        assertNotNull(page.get(0).getBooker().getId(), "Не равны");
+    }
+
+    @Test
+    void findById_whenBookingIsLoaded_thenItemIsFetchedInTheSameQuery() {
+        Long id = bookingRepository.findAll().get(0).getId();
+        statistics.clear();
+
+        Booking booking = bookingRepository.findById(id).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "Не равны");
+        assertTrue(Hibernate.isInitialized(booking.getItem()), "Не равны");
+        assertFalse(Hibernate.isInitialized(booking.getBooker()), "Не равны");
+    }
+}
@@ -7,6 +7,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -14,9 +18,13 @@ import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static ru.practicum.shareit.booking.enums.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.enums.BookingStatus.WAITING;
@@ -68,27 +76,29 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByBookerId() {
-        Page<Booking> newPage = bookingRepository.findAllByBookerId(userRepository.findAll().get(1).getId(),
-                PageRequest.of(0, 100));
+        Integer bookerId = userRepository.findAll().get(1).getId();
+        Page<BookingDto> newPage = bookingRepository.findAllByBookerId(bookerId, PageRequest.of(0, 100));
 
         assertEquals(2, newPage.getContent().size());
-        assertEquals("Felix", newPage.getContent().get(0).getBooker().getName());
-        assertEquals("Felix", newPage.getContent().get(1).getBooker().getName());
+        assertEquals(bookerId, newPage.getContent().get(0).getBooker().getId());
+        assertEquals(bookerId, newPage.getContent().get(1).getBooker().getId());
+        assertEquals("Дрель", newPage.getContent().get(1).getItem().getName());
     }
 
     @Test
     void findAllByBooker_IdAndStatus() {
-        Page<Booking> newPage = bookingRepository.findAllByBooker_IdAndStatus(userRepository.findAll().get(1).getId(),
-                String.valueOf(WAITING), PageRequest.of(0, 100));
+        Integer bookerId = userRepository.findAll().get(1).getId();
+        Page<BookingDto> newPage = bookingRepository.findAllByBooker_IdAndStatus(bookerId, WAITING,
+                PageRequest.of(0, 100));
 
         assertEquals(1, newPage.getContent().size());
-        assertEquals("Felix", newPage.getContent().get(0).getBooker().getName());
+        assertEquals(bookerId, newPage.getContent().get(0).getBooker().getId());
         assertEquals("WAITING", String.valueOf(newPage.getContent().get(0).getStatus()));
     }
 
     @Test
     void findPastBookingsForBooker() {
-        Page<Booking> newPage = bookingRepository.findPastBookingsForBooker(userRepository.findAll().get(1).getId(),
+        Page<BookingDto> newPage = bookingRepository.findPastBookingsForBooker(userRepository.findAll().get(1).getId(),
                 LocalDateTime.now(), PageRequest.of(0, 100));
 
         assertEquals(0, newPage.getContent().size());
@@ -96,7 +106,7 @@ class BookingRepositoryTest {
 
     @Test
     void findFutureBookingsForBooker() {
-        Page<Booking> newPage = bookingRepository.findFutureBookingsForBooker(userRepository.findAll().get(1).getId(),
+        Page<BookingDto> newPage = bookingRepository.findFutureBookingsForBooker(userRepository.findAll().get(1).getId(),
                 LocalDateTime.now(), PageRequest.of(0, 100));
 
         assertEquals(1, newPage.getContent().size());
@@ -105,7 +115,7 @@ class BookingRepositoryTest {
 
     @Test
     void findCurrentBookingsForBooker() {
-        Page<Booking> newPage = bookingRepository.findCurrentBookingsForBooker(userRepository.findAll().get(1).getId(),
+        Page<BookingDto> newPage = bookingRepository.findCurrentBookingsForBooker(userRepository.findAll().get(1).getId(),
                 LocalDateTime.now(), LocalDateTime.now(), PageRequest.of(0, 100));
 
         assertEquals(1, newPage.getContent().size());
@@ -114,12 +124,47 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllBookingsByItem_Id() {
-        List<Booking> expectedList = bookingRepository.findAllBookingsByItem_Id(
-                itemRepository.findAll().get(1).getId());
+    void findNextBookingOfItem() {
+        List<BookingShort> expectedList = bookingRepository.findNextBookingOfItem(
+                itemRepository.findAll().get(1).getId(), APPROVED, LocalDateTime.now(), PageRequest.of(0, 1));
+
+        assertEquals(1, expectedList.size());
+        assertEquals(itemRepository.findAll().get(1).getId(), expectedList.get(0).getItemId());
+    }
+
+    @Test
+    void findLastBookingOfItem_whenBookingIsNotApproved_thenListIsEmpty() {
+        List<BookingShort> expectedList = bookingRepository.findLastBookingOfItem(
+                itemRepository.findAll().get(0).getId(), APPROVED, LocalDateTime.now(), PageRequest.of(0, 1));
+
+        assertEquals(0, expectedList.size());
+    }
+
+    @Test
+    void findLastBookingOfItem_whenSeveralBookingsStarted_thenReturnLatestStart() {
+        Item item = itemRepository.findAll().get(1);
+        User booker = userRepository.findAll().get(1);
+        Booking older = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(3L))
+                .end(LocalDateTime.now().minusDays(2L))
+                .item(item)
+                .booker(booker)
+                .status(APPROVED)
+                .build());
+        Booking latest = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusHours(2L))
+                .end(LocalDateTime.now().minusHours(1L))
+                .item(item)
+                .booker(booker)
+                .status(APPROVED)
+                .build());
+
+        List<BookingShort> expectedList = bookingRepository.findLastBookingOfItem(
+                item.getId(), APPROVED, LocalDateTime.now(), PageRequest.of(0, 1));
 
         assertEquals(1, expectedList.size());
-        assertEquals("APPROVED", String.valueOf(expectedList.get(0).getStatus()));
+        assertEquals(latest.getId(), expectedList.get(0).getId());
+        assertTrue(older.getStart().isBefore(expectedList.get(0).getStart()));
     }
 
     @Test
@@ -133,7 +178,7 @@ class BookingRepositoryTest {
 
     @Test
     void findAllBookingsToOwnerPageable() {
-        Page<Booking> newPage = bookingRepository.findAllBookingsToOwnerPageable(
+        Page<BookingDto> newPage = bookingRepository.findAllBookingsToOwnerPageable(
                 userRepository.findAll().get(0).getId(),
                 PageRequest.of(0, 100));
 
@@ -143,7 +188,7 @@ class BookingRepositoryTest {
 
     @Test
     void findCurrentBookingsForOwnerPageable() {
-        Page<Booking> newPage = bookingRepository.findCurrentBookingsForOwnerPageable(
+        Page<BookingDto> newPage = bookingRepository.findCurrentBookingsForOwnerPageable(
                 userRepository.findAll().get(0).getId(),
                 LocalDateTime.now(),
                 LocalDateTime.now(),
@@ -156,7 +201,7 @@ class BookingRepositoryTest {
 
     @Test
     void findPastBookingsForOwnerPageable() {
-        Page<Booking> newPage = bookingRepository.findPastBookingsForOwnerPageable(
+        Page<BookingDto> newPage = bookingRepository.findPastBookingsForOwnerPageable(
                 userRepository.findAll().get(0).getId(),
                 LocalDateTime.now(),
                 PageRequest.of(0, 100));
@@ -166,7 +211,7 @@ class BookingRepositoryTest {
 
     @Test
     void findFutureBookingsForOwnerPageable() {
-        Page<Booking> newPage = bookingRepository.findFutureBookingsForOwnerPageable(
+        Page<BookingDto> newPage = bookingRepository.findFutureBookingsForOwnerPageable(
                 userRepository.findAll().get(0).getId(),
                 LocalDateTime.now(), PageRequest.of(0, 100));
 
@@ -176,15 +221,95 @@ class BookingRepositoryTest {
 
     @Test
     void findStatusBookingsForOwnerPageable() {
-        Page<Booking> newPage = bookingRepository.findStatusBookingsForOwnerPageable(
+        Page<BookingDto> newPage = bookingRepository.findStatusBookingsForOwnerPageable(
                 userRepository.findAll().get(0).getId(),
-                String.valueOf(WAITING),
+                WAITING,
                 PageRequest.of(0, 100));
 
         assertEquals(1, newPage.getContent().size());
         assertEquals("WAITING", String.valueOf(newPage.getContent().get(0).getStatus()));
     }
 
+    @Test
+    void ownerPageableQueries_whenPageIsBeyondContent_thenTotalIsCounted() {
+        Integer ownerId = userRepository.findAll().get(0).getId();
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest farPage = PageRequest.of(5, 1);
+
+        assertEquals(2, bookingRepository.findAllBookingsToOwnerPageable(ownerId, farPage).getTotalElements());
+        assertEquals(1, bookingRepository.findCurrentBookingsForOwnerPageable(ownerId, now, now, farPage)
+                .getTotalElements());
+        assertEquals(0, bookingRepository.findPastBookingsForOwnerPageable(ownerId, now, farPage).getTotalElements());
+        assertEquals(1, bookingRepository.findFutureBookingsForOwnerPageable(ownerId, now, farPage)
+                .getTotalElements());
+        assertEquals(1, bookingRepository.findStatusBookingsForOwnerPageable(ownerId, WAITING, farPage)
+                .getTotalElements());
+    }
+
+    @Test
+    void findBookerBookingsAfter_whenPagesAreWalkedByCursor_thenEachBookingIsReturnedOnceInOrder() {
+        User booker = userRepository.findAll().get(1);
+        Item item = itemRepository.findAll().get(0);
+        LocalDateTime sameStart = LocalDateTime.now().plusDays(3L).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            bookingRepository.save(new Booking(null, sameStart, sameStart.plusHours(i + 1L), item, booker, WAITING));
+        }
+        List<Booking> expected = bookingRepository.findAll();
+        expected.sort(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed());
+
+        List<BookingDto> walked = new ArrayList<>();
+        BookingCursor cursor = BookingCursor.FIRST;
+        Slice<BookingDto> slice;
+        do {
+            slice = bookingRepository.findBookerBookingsAfter(
+                    booker.getId(), cursor.getStart(), cursor.getId(), PageRequest.of(0, 2));
+            walked.addAll(slice.getContent());
+            if (slice.hasContent()) {
+                cursor = BookingCursor.after(slice.getContent().get(slice.getNumberOfElements() - 1));
+            }
+        } while (slice.hasNext());
+
+        assertEquals(5, walked.size());
+        assertEquals(expected.stream().map(Booking::getId).collect(Collectors.toList()),
+                walked.stream().map(BookingDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findOwnerBookingsWithStatusAfter_whenStatusIsApproved_thenReturnApprovedOnly() {
+        Slice<BookingDto> slice = bookingRepository.findOwnerBookingsWithStatusAfter(userRepository.findAll().get(0).getId(),
+                BookingCursor.FIRST.getStart(), BookingCursor.FIRST.getId(), APPROVED, PageRequest.of(0, 10));
+
+        assertEquals(1, slice.getNumberOfElements());
+        assertEquals(APPROVED, slice.getContent().get(0).getStatus());
+        assertFalse(slice.hasNext());
+    }
+
+    @Test
+    void findCurrentOwnerBookingsAfter_whenBookingIsInProgress_thenReturnIt() {
+        Slice<BookingDto> slice = bookingRepository.findCurrentOwnerBookingsAfter(userRepository.findAll().get(0).getId(),
+                BookingCursor.FIRST.getStart(), BookingCursor.FIRST.getId(), LocalDateTime.now(), PageRequest.of(0, 10));
+
+        assertEquals(1, slice.getNumberOfElements());
+        assertEquals(WAITING, slice.getContent().get(0).getStatus());
+    }
+
+    @Test
+    void existsItemBookingWithStatusBetween_whenPeriodIntersectsApprovedBooking_thenReturnTrue() {
+        Booking approved = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == APPROVED)
+                .findFirst()
+                .orElseThrow();
+        Long itemId = approved.getItem().getId();
+
+        assertTrue(bookingRepository.existsItemBookingWithStatusBetween(itemId, APPROVED,
+                approved.getStart().minusHours(1), approved.getStart().plusHours(1)));
+        assertFalse(bookingRepository.existsItemBookingWithStatusBetween(itemId, APPROVED,
+                approved.getEnd().plusMinutes(1), approved.getEnd().plusHours(1)));
+        assertEquals(List.of(approved.getId()), bookingRepository.findItemsBookingsWithStatus(List.of(itemId), APPROVED).stream()
+                .map(BookingShort::getId)
+                .collect(Collectors.toList()));
+    }
+
     @AfterEach
     public void deleteItems() {
         bookingRepository.deleteAll();
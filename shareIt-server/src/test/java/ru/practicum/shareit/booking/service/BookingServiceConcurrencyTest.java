@@ -0,0 +1,217 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.storage.ItemBookingLocks;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Одновременно подтверждает и создаёт пересекающиеся бронирования нескольких вещей из пула потоков.
+ * У каждой вещи должно остаться ровно одно подтверждённое бронирование, остальные операции - получить 409.
+ */
+@SpringBootTest
+class BookingServiceConcurrencyTest {
+    private static final int ITEMS = 4;
+    private static final int BOOKINGS_PER_ITEM = 8;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemBookingLocks itemBookingLocks;
+    @Autowired
+    private MeterRegistry registry;
+
+    private User owner;
+    private User booker;
+    private final List<Item> items = new ArrayList<>();
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User(null, "Владелец", "owner@concurrency.ru"));
+        booker = userRepository.save(new User(null, "Арендатор", "booker@concurrency.ru"));
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(new Item(null, "Дрель " + i, "Дрель номер " + i, true, owner, null)));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        items.clear();
+    }
+
+    @Test
+    void approveBooking_whenOverlappingBookingsAreApprovedConcurrently_thenOneApprovedPerItem() throws Exception {
+        List<Booking> waiting = new ArrayList<>();
+        for (Item item : items) {
+            for (int k = 0; k < BOOKINGS_PER_ITEM; k++) {
+                waiting.add(bookingRepository.save(new Booking(null, start.plusMinutes(k), start.plusHours(2)
+                        .plusMinutes(k), item, booker, BookingStatus.WAITING)));
+            }
+        }
+        Collections.shuffle(waiting);
+        List<Callable<Void>> tasks = waiting.stream()
+                .map(booking -> (Callable<Void>) () -> {
+                    bookingService.approveBooking(owner.getId(), booking.getId(), true);
+                    return null;
+                })
+                .collect(Collectors.toList());
+
+        int conflicts = runConcurrently(tasks);
+
+        assertEquals(ITEMS * (BOOKINGS_PER_ITEM - 1), conflicts, "Не равны");
+        assertApprovedOncePerItem();
+    }
+
+    @Test
+    void createAndApproveBooking_whenRunConcurrently_thenApprovedBookingsDoNotOverlap() throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Item item : items) {
+            for (int k = 0; k < BOOKINGS_PER_ITEM; k++) {
+                LocalDateTime bookingStart = start.plusMinutes(k);
+                tasks.add(() -> {
+                    Booking created = bookingService.createBooking(new Booking(null, bookingStart,
+                            bookingStart.plusHours(2), item, booker, BookingStatus.WAITING));
+                    bookingService.approveBooking(owner.getId(), created.getId(), true);
+                    return null;
+                });
+            }
+        }
+        Collections.shuffle(tasks);
+
+        int conflicts = runConcurrently(tasks);
+
+        assertEquals(ITEMS * (BOOKINGS_PER_ITEM - 1), conflicts, "Не равны");
+        assertApprovedOncePerItem();
+    }
+
+    @Test
+    void approveBooking_whenItemIsLocked_thenWaitingCallsHoldNoConnections() throws Exception {
+        Item item = items.get(0);
+        List<Booking> waiting = new ArrayList<>();
+        for (int k = 0; k < THREADS; k++) {
+            waiting.add(bookingRepository.save(new Booking(null, start.plusMinutes(k), start.plusHours(2)
+                    .plusMinutes(k), item, booker, BookingStatus.WAITING)));
+        }
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable);
+            threads.add(thread);
+            return thread;
+        });
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            try (ItemBookingLocks.Held ignored = itemBookingLocks.lock(item.getId())) {
+                for (Booking booking : waiting) {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            bookingService.approveBooking(owner.getId(), booking.getId(), true);
+                            return true;
+                        } catch (ValidationException e) {
+                            assertEquals(HttpStatus.CONFLICT, e.getStatus(), "Не равны");
+                            return false;
+                        }
+                    }));
+                }
+                long deadline = System.currentTimeMillis() + 3000;
+                while ((threads.size() < THREADS
+                        || !threads.stream().allMatch(t -> t.getState() == Thread.State.TIMED_WAITING))
+                        && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+
+                assertEquals(THREADS, threads.size(), "Не равны");
+                assertEquals(0, registry.get("hikaricp.connections.active").gauges().stream()
+                        .mapToDouble(Gauge::value)
+                        .sum(), "Не равны");
+            }
+            int approved = 0;
+            for (Future<Boolean> future : futures) {
+                approved += future.get(60, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(1, approved, "Не равны");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertApprovedOncePerItem() {
+        Map<Long, Long> approvedPerItem = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.counting()));
+        assertEquals(ITEMS, approvedPerItem.size(), "Не равны");
+        approvedPerItem.values().forEach(count -> assertEquals(1L, count, "Не равны"));
+    }
+
+    /**
+     * выполняет задачи из пула потоков, одновременно отпуская их барьером, и возвращает число ответов 409
+     */
+    private int runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    try {
+                        task.call();
+                    } catch (ValidationException e) {
+                        assertEquals(HttpStatus.CONFLICT, e.getStatus(), "Не равны");
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            startGate.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return conflicts.get();
+    }
+}
@@ -5,12 +5,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.common.outbox.Outbox;
 import ru.practicum.shareit.exception.IncorrectIdException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemShort;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.user.dto.UserShort;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -31,6 +40,10 @@ class BookingServiceImplTest {
     private UserService userService;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private Outbox outbox;
     @Captor
     private ArgumentCaptor<Booking> bookingArgumentCaptor;
     @InjectMocks
@@ -55,14 +68,47 @@ class BookingServiceImplTest {
             .booker(booker)
             .status(APPROVED)
             .build();
+    BookingDto bookingDto1 = new BookingDto(booking1.getId(), booking1.getStart(), booking1.getEnd(),
+            new ItemShort(item.getId(), item.getName()), new UserShort(booker.getId()), REJECTED);
+    BookingDto bookingDto2 = new BookingDto(booking2.getId(), booking2.getStart(), booking2.getEnd(),
+            new ItemShort(item.getId(), item.getName()), new UserShort(booker.getId()), APPROVED);
+
+    @Test
+    void findBookingsForBookerAfter_whenStateIsRejected_thenUseStatusQueryWithCursor() {
+        BookingCursor cursor = new BookingCursor(bookingDto2.getStart(), bookingDto2.getId());
+        Mockito.when(bookingRepository.findBookerBookingsWithStatusAfter(eq(booker.getId()), eq(cursor.getStart()),
+                        eq(cursor.getId()), eq(REJECTED), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingDto1)));
+
+        List<BookingDto> actualList = bookingService
+                .findBookingsForBookerAfter(booker.getId(), State.REJECTED, cursor, 10)
+                .getContent();
+
+        assertIterableEquals(List.of(bookingDto1), actualList, "Не равны");
+    }
+
+    @Test
+    void findBookingsForOwnerAfter_whenStateIsCurrent_thenUseCurrentQueryWithPageSize() {
+        ArgumentCaptor<Pageable> pageCaptor = ArgumentCaptor.forClass(Pageable.class);
+        Mockito.when(bookingRepository.findCurrentOwnerBookingsAfter(eq(owner.getId()), eq(BookingCursor.FIRST.getStart()),
+                        eq(BookingCursor.FIRST.getId()), any(), pageCaptor.capture()))
+                .thenReturn(new SliceImpl<>(List.of(bookingDto2)));
+
+        List<BookingDto> actualList = bookingService
+                .findBookingsForOwnerAfter(owner.getId(), State.CURRENT, BookingCursor.FIRST, 5)
+                .getContent();
+
+        assertIterableEquals(List.of(bookingDto2), actualList, "Не равны");
+        assertEquals(5, pageCaptor.getValue().getPageSize(), "Не равны");
+    }
 
     @Test
     void findAllBookingsForBooker_whenStateIsAll_thenReturnListOfBookingsSize2() {
-        List<Booking> expectedList = Arrays.asList(booking1, booking2);
+        List<BookingDto> expectedList = Arrays.asList(bookingDto1, bookingDto2);
         Mockito.when(bookingRepository.findAllByBookerId(anyInt(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForBooker(booker.getId(), State.ALL, 1, 10)
                 .getContent();
 
@@ -72,12 +118,12 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForBooker_whenStateIsCurrent_thenReturnListOfBookingsSize1() {
-        List<Booking> expectedList = Collections.singletonList(booking2);
+        List<BookingDto> expectedList = Collections.singletonList(bookingDto2);
         Mockito.when(bookingRepository.findCurrentBookingsForBooker(
                         anyInt(), Mockito.any(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForBooker(booker.getId(), State.CURRENT, 1, 10)
                 .getContent();
 
@@ -87,11 +133,11 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForBooker_whenStateIsPast_thenReturnListOfBookingsSize1() {
-        List<Booking> expectedList = Collections.singletonList(booking1);
+        List<BookingDto> expectedList = Collections.singletonList(bookingDto1);
         Mockito.when(bookingRepository.findPastBookingsForBooker(anyInt(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForBooker(booker.getId(), State.PAST, 1, 10)
                 .getContent();
 
@@ -101,11 +147,11 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForBooker_whenStateIsFuture_thenReturnListOfBookingsSize0() {
-        List<Booking> expectedList = List.of();
+        List<BookingDto> expectedList = List.of();
         Mockito.when(bookingRepository.findFutureBookingsForBooker(anyInt(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForBooker(booker.getId(), State.FUTURE, 1, 10)
                 .getContent();
 
@@ -115,11 +161,11 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForBooker_whenStateIsRejected_thenReturnListOfBookingsSize1() {
-        List<Booking> expectedList = List.of(booking1);
+        List<BookingDto> expectedList = List.of(bookingDto1);
         Mockito.when(bookingRepository.findAllByBooker_IdAndStatus(anyInt(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForBooker(booker.getId(), State.REJECTED, 1, 10)
                 .getContent();
 
@@ -129,11 +175,11 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForBooker_whenStateIsWaiting_thenReturnListOfBookingsSize0() {
-        List<Booking> expectedList = List.of();
+        List<BookingDto> expectedList = List.of();
         Mockito.when(bookingRepository.findAllByBooker_IdAndStatus(anyInt(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForBooker(booker.getId(), State.WAITING, 1, 10)
                 .getContent();
 
@@ -143,11 +189,11 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForOwner_whenStateIsAll_thenReturnListOfBookingsSize2() {
-        List<Booking> expectedList = Arrays.asList(booking1, booking2);
+        List<BookingDto> expectedList = Arrays.asList(bookingDto1, bookingDto2);
         Mockito.when(bookingRepository.findAllBookingsToOwnerPageable(anyInt(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForOwner(owner.getId(), State.ALL, 1, 10)
                 .getContent();
 
@@ -157,12 +203,12 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForOwner_whenStateIsCurrent_thenReturnListOfBookingsSize1() {
-        List<Booking> expectedList = Collections.singletonList(booking2);
+        List<BookingDto> expectedList = Collections.singletonList(bookingDto2);
         Mockito.when(bookingRepository.findCurrentBookingsForOwnerPageable(
                         anyInt(), Mockito.any(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForOwner(owner.getId(), State.CURRENT, 1, 10)
                 .getContent();
 
@@ -172,11 +218,11 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForOwner_whenStateIsPast_thenReturnListOfBookingsSize1() {
-        List<Booking> expectedList = Collections.singletonList(booking1);
+        List<BookingDto> expectedList = Collections.singletonList(bookingDto1);
         Mockito.when(bookingRepository.findPastBookingsForOwnerPageable(anyInt(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForOwner(owner.getId(), State.PAST, 1, 10)
                 .getContent();
 
@@ -186,11 +232,11 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForOwner_whenStateIsFuture_thenReturnListOfBookingsSize0() {
-        List<Booking> expectedList = List.of();
+        List<BookingDto> expectedList = List.of();
         Mockito.when(bookingRepository.findFutureBookingsForOwnerPageable(anyInt(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForOwner(owner.getId(), State.FUTURE, 1, 10)
                 .getContent();
 
@@ -200,11 +246,11 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForOwner_whenStateIsRejected_thenReturnListOfBookingsSize1() {
-        List<Booking> expectedList = Collections.singletonList(booking1);
+        List<BookingDto> expectedList = Collections.singletonList(bookingDto1);
         Mockito.when(bookingRepository.findStatusBookingsForOwnerPageable(anyInt(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForOwner(owner.getId(), State.REJECTED, 1, 10)
                 .getContent();
 
@@ -214,11 +260,11 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsForOwner_whenStateIsWaiting_thenReturnListOfBookingsSize0() {
-        List<Booking> expectedList = List.of();
+        List<BookingDto> expectedList = List.of();
         Mockito.when(bookingRepository.findStatusBookingsForOwnerPageable(anyInt(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(expectedList));
 
-        List<Booking> actualList = bookingService
+        List<BookingDto> actualList = bookingService
                 .findAllBookingsForOwner(owner.getId(), State.WAITING, 1, 10)
                 .getContent();
 
@@ -296,6 +342,26 @@ class BookingServiceImplTest {
         verify(bookingRepository, never()).save(wrongBookingToCreate);
     }
 
+    @Test
+    void createBooking_whenPeriodOverlapsApprovedBooking_thenConflictThrown() {
+        Booking overlappingBooking = Booking.builder()
+                .start(LocalDateTime.now().plusMinutes(10))
+                .end(LocalDateTime.now().plusMinutes(30))
+                .item(item)
+                .booker(booker)
+                .status(WAITING)
+                .build();
+        Mockito.when(bookingIntervalIndex.overlapsApproved(item.getId(), overlappingBooking.getStart(),
+                overlappingBooking.getEnd(), null)).thenReturn(true);
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bookingService.createBooking(overlappingBooking),
+                "Не равны");
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus(), "Не равны");
+        verify(bookingRepository, never()).save(overlappingBooking);
+    }
+
     @Test
     void updateBooking_whenItemToUpdateIsValid_thenReturnBooking() {
         Booking oldBooking = Booking.builder()
@@ -358,6 +424,30 @@ class BookingServiceImplTest {
         assertEquals(approvedBooking.getStatus(), savedBooking.getStatus());
     }
 
+    @Test
+    void approveBooking_whenPeriodOverlapsApprovedBooking_thenConflictThrown() {
+        Booking requestBooking = Booking.builder()
+                .id(3L)
+                .start(LocalDateTime.now().plusMinutes(20))
+                .end(LocalDateTime.now().plusMinutes(40))
+                .item(item)
+                .booker(booker)
+                .status(WAITING)
+                .build();
+        Mockito.when(bookingRepository.findById(requestBooking.getId())).thenReturn(Optional.of(requestBooking));
+        Mockito.when(bookingIntervalIndex.overlapsApproved(item.getId(), requestBooking.getStart(),
+                requestBooking.getEnd(), requestBooking.getId())).thenReturn(true);
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bookingService.approveBooking(owner.getId(), requestBooking.getId(), true),
+                "Не равны");
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus(), "Не равны");
+        assertEquals(WAITING, requestBooking.getStatus(), "Не равны");
+        verify(bookingRepository, never()).save(requestBooking);
+        verify(bookingIntervalIndex, never()).index(any());
+    }
+
     @Test
     void approveBooking_whenStatusIsApproved_thenExceptionThrown() {
         Booking bookingToApprove = booking2;
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.user.entity.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+
+    User owner = new User(1, "Billy", "email55@yandex.com");
+    User booker = new User(2, "Felix", "felix@yandex.com");
+    Item item = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+    LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository, true, false, 100, Duration.ofMinutes(10));
+        Mockito.lenient().when(bookingRepository.findItemsBookingsWithStatus(List.of(item.getId()), BookingStatus.APPROVED))
+                .thenReturn(List.of(
+                        new BookingShort(1L, day.plusHours(10), day.plusHours(12), booker.getId(), item.getId()),
+                        new BookingShort(2L, day.plusHours(14), day.plusHours(16), booker.getId(), item.getId())));
+    }
+
+    @Test
+    void overlapsApproved_whenPeriodIntersectsApprovedBooking_thenReturnTrue() {
+        assertTrue(index.overlapsApproved(item.getId(), day.plusHours(11), day.plusHours(13), null), "Не равны");
+        assertTrue(index.overlapsApproved(item.getId(), day.plusHours(9), day.plusHours(17), null), "Не равны");
+        assertTrue(index.overlapsApproved(item.getId(), day.plusHours(15), day.plusHours(15).plusMinutes(1), null),
+                "Не равны");
+    }
+
+    @Test
+    void overlapsApproved_whenPeriodTouchesOrFitsBetweenApprovedBookings_thenReturnFalse() {
+        assertFalse(index.overlapsApproved(item.getId(), day.plusHours(12), day.plusHours(14), null), "Не равны");
+        assertFalse(index.overlapsApproved(item.getId(), day, day.plusHours(10), null), "Не равны");
+        assertFalse(index.overlapsApproved(item.getId(), day.plusHours(16), day.plusHours(20), null), "Не равны");
+    }
+
+    @Test
+    void overlapsApproved_whenOverlappingBookingIsExcepted_thenReturnFalse() {
+        assertFalse(index.overlapsApproved(item.getId(), day.plusHours(14), day.plusHours(16), 2L), "Не равны");
+        assertTrue(index.overlapsApproved(item.getId(), day.plusHours(11), day.plusHours(16), 2L), "Не равны");
+    }
+
+    @Test
+    void overlapsApproved_whenCalledRepeatedly_thenLoadItemBookingsOnce() {
+        index.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+        index.overlapsApproved(item.getId(), day.plusHours(2), day.plusHours(3), null);
+
+        verify(bookingRepository, times(1)).findItemsBookingsWithStatus(List.of(item.getId()), BookingStatus.APPROVED);
+    }
+
+    @Test
+    void overlapsApproved_whenReadOnlyTransactionMayUseReplica_thenDoNotKeepItemBookings() {
+        BookingIntervalIndex routed = new BookingIntervalIndex(bookingRepository, true, true, 100, Duration.ofMinutes(10));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            routed.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+            routed.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        routed.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+        routed.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+
+        verify(bookingRepository, times(3)).findItemsBookingsWithStatus(List.of(item.getId()), BookingStatus.APPROVED);
+    }
+
+    @Test
+    void index_whenBookingIsApprovedOrDeleted_thenUpdateItemBookings() {
+        index.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+        Booking booking = new Booking(3L, day.plusHours(20), day.plusHours(22), item, booker, BookingStatus.APPROVED);
+
+        index.index(booking);
+        assertTrue(index.overlapsApproved(item.getId(), day.plusHours(21), day.plusHours(23), null), "Не равны");
+
+        index.delete(booking);
+        assertFalse(index.overlapsApproved(item.getId(), day.plusHours(21), day.plusHours(23), null), "Не равны");
+    }
+
+    @Test
+    void index_whenApprovedBookingBecomesWaiting_thenRemoveIt() {
+        index.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+
+        index.index(new Booking(1L, day.plusHours(10), day.plusHours(12), item, booker, BookingStatus.WAITING));
+
+        assertFalse(index.overlapsApproved(item.getId(), day.plusHours(11), day.plusHours(13), null), "Не равны");
+    }
+
+    @Test
+    void findLastApproved_whenBookingsStartedBeforeNow_thenReturnLatestOfThem() {
+        Map<Long, BookingShort> last = index.findLastApproved(List.of(item.getId()), day.plusHours(15));
+
+        assertEquals(2L, last.get(item.getId()).getId(), "Не равны");
+        assertEquals(day.plusHours(14), last.get(item.getId()).getStart(), "Не равны");
+        assertEquals(booker.getId(), last.get(item.getId()).getBookerId(), "Не равны");
+        assertTrue(index.findLastApproved(List.of(item.getId()), day.plusHours(10)).isEmpty(), "Не равны");
+    }
+
+    @Test
+    void findNextApproved_whenBookingsStartAfterNow_thenReturnEarliestOfThem() {
+        Map<Long, BookingShort> next = index.findNextApproved(List.of(item.getId()), day.plusHours(10));
+
+        assertEquals(2L, next.get(item.getId()).getId(), "Не равны");
+        assertEquals(1L, index.findNextApproved(List.of(item.getId()), day).get(item.getId()).getId(), "Не равны");
+        assertTrue(index.findNextApproved(List.of(item.getId()), day.plusHours(14)).isEmpty(), "Не равны");
+    }
+
+    @Test
+    void findLastApproved_whenSeveralItemsAreNotLoaded_thenLoadThemWithOneQuery() {
+        Item other = new Item(2L, "Отвертка", "Незаменимая вещь", true, owner, null);
+        when(bookingRepository.findItemsBookingsWithStatus(List.of(item.getId(), other.getId()),
+                BookingStatus.APPROVED)).thenReturn(List.of(
+                new BookingShort(1L, day.plusHours(10), day.plusHours(12), booker.getId(), item.getId()),
+                new BookingShort(3L, day.plusHours(1), day.plusHours(2), booker.getId(), other.getId())));
+
+        Map<Long, BookingShort> last = index.findLastApproved(List.of(item.getId(), other.getId()), day.plusDays(1));
+        index.findNextApproved(List.of(item.getId(), other.getId()), day);
+
+        assertEquals(1L, last.get(item.getId()).getId(), "Не равны");
+        assertEquals(3L, last.get(other.getId()).getId(), "Не равны");
+        verify(bookingRepository, times(1)).findItemsBookingsWithStatus(any(), any());
+    }
+
+    @Test
+    void delete_whenBookingsShareStart_thenRemoveOnlyDeletedBooking() {
+        index.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+        index.index(new Booking(3L, day.plusHours(20), day.plusHours(21), item, booker, BookingStatus.APPROVED));
+        index.index(new Booking(4L, day.plusHours(20), day.plusHours(22), item, booker, BookingStatus.APPROVED));
+
+        index.delete(new Booking(3L, day.plusHours(20), day.plusHours(21), item, booker, BookingStatus.APPROVED));
+
+        assertTrue(index.overlapsApproved(item.getId(), day.plusHours(21), day.plusHours(23), null), "Не равны");
+        assertEquals(4L, index.findNextApproved(List.of(item.getId()), day.plusHours(17)).get(item.getId()).getId(),
+                "Не равны");
+    }
+
+    @Test
+    void deleteItems_whenItemIsDeleted_thenForgetItemBookings() {
+        index.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+
+        index.deleteItems(List.of(item.getId()));
+        index.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+
+        verify(bookingRepository, times(2)).findItemsBookingsWithStatus(List.of(item.getId()), BookingStatus.APPROVED);
+    }
+
+    @Test
+    void deleteBooker_whenBookerIsDeleted_thenReloadOnlyTheirItems() {
+        Item other = new Item(2L, "Пила", "Ручная пила", true, owner, null);
+        when(bookingRepository.findItemsBookingsWithStatus(List.of(other.getId()), BookingStatus.APPROVED))
+                .thenReturn(List.of(new BookingShort(5L, day, day.plusHours(1), 3, other.getId())));
+        index.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+        index.overlapsApproved(other.getId(), day, day.plusHours(1), null);
+
+        index.deleteBooker(booker.getId());
+        index.overlapsApproved(item.getId(), day, day.plusHours(1), null);
+        index.overlapsApproved(other.getId(), day, day.plusHours(1), null);
+
+        verify(bookingRepository, times(2)).findItemsBookingsWithStatus(List.of(item.getId()), BookingStatus.APPROVED);
+        verify(bookingRepository, times(1)).findItemsBookingsWithStatus(List.of(other.getId()), BookingStatus.APPROVED);
+    }
+
+    @Test
+    void index_whenBookingIsApprovedBeforeItemIsLoaded_thenLoadFromDatabase() {
+        index.index(new Booking(3L, day.plusHours(20), day.plusHours(22), item, booker, BookingStatus.APPROVED));
+
+        Map<Long, BookingShort> next = index.findNextApproved(List.of(item.getId()), day.plusHours(15));
+
+        assertTrue(next.isEmpty(), "Не равны");
+    }
+
+    @Test
+    void overlapsApproved_whenIndexIsDisabled_thenQueryDatabase() {
+        BookingIntervalIndex disabled = new BookingIntervalIndex(bookingRepository, false, false, 100, Duration.ofMinutes(10));
+        Mockito.when(bookingRepository.existsItemBookingWithStatusBetween(item.getId(), BookingStatus.APPROVED,
+                day, day.plusHours(1))).thenReturn(true);
+
+        assertTrue(disabled.overlapsApproved(item.getId(), day, day.plusHours(1), null), "Не равны");
+        verify(bookingRepository, never()).findItemsBookingsWithStatus(any(), any());
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemBookingLocksTest {
+    private final ItemBookingLocks locks = new ItemBookingLocks(64, Duration.ofMillis(100));
+
+    @Test
+    void lock_whenTransactionIsActive_thenExceptionThrown() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(IllegalStateException.class, () -> locks.lock(1L), "Не равны");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void lock_whenItemIsLockedByAnotherThread_thenConflictUntilItIsReleased() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() -> {
+            try (ItemBookingLocks.Held ignored = locks.lock(1L)) {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(locked.await(5, TimeUnit.SECONDS), "Не равны");
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> locks.lock(2L, 1L), "Не равны");
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus(), "Не равны");
+        locks.lock(2L).close();
+
+        release.countDown();
+        other.get(5, TimeUnit.SECONDS);
+        locks.lock(1L, 2L).close();
+    }
+
+    @Test
+    void lock_whenSameItemIsLockedTwice_thenReleaseBothOnClose() throws Exception {
+        try (ItemBookingLocks.Held ignored = locks.lock(1L, 1L, null)) {
+            locks.lock(1L).close();
+        }
+
+        CompletableFuture.runAsync(() -> locks.lock(1L).close()).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void invoke_whenMethodIsAnnotated_thenItRunsWithItemsFromExpressionsLocked() throws Exception {
+        ProxyFactory factory = new ProxyFactory(new Operations());
+        factory.addAdvice(locks);
+        Operations operations = (Operations) factory.getProxy();
+
+        operations.run(1L, null, () -> {
+            CompletionException exception = assertThrows(CompletionException.class,
+                    () -> CompletableFuture.runAsync(() -> locks.lock(1L).close()).join(), "Не равны");
+            assertTrue(exception.getCause() instanceof ValidationException, "Не равны");
+        });
+
+        CompletableFuture.runAsync(() -> locks.lock(1L).close()).get(5, TimeUnit.SECONDS);
+    }
+
+    static class Operations {
+        @LockItems({"#itemId", "#otherItemId"})
+        public void run(Long itemId, Long otherItemId, Runnable body) {
+            body.run();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.common.cache;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Objects;
+
+/**
+ * Очищает кэши после каждого теста @SpringBootTest: тесты удаляют данные напрямую через репозитории,
+ * в обход сервисов, и записи кэша не должны переходить в следующий тест.
+ * Подключается ко всем тестам автоматически (META-INF/services, junit-platform.properties).
+ */
+public class CacheClearingExtension implements AfterEachCallback {
+    @Override
+    public void afterEach(ExtensionContext context) {
+        boolean springBootTest = context.getTestClass()
+                .map(testClass -> AnnotatedElementUtils.hasAnnotation(testClass, SpringBootTest.class))
+                .orElse(false);
+        if (!springBootTest) {
+            return;
+        }
+        CacheManager cacheManager = SpringExtension.getApplicationContext(context).getBean(CacheManager.class);
+        cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear);
+    }
+}
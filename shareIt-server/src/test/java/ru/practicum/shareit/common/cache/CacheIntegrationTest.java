@@ -0,0 +1,148 @@
+package ru.practicum.shareit.common.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.IncorrectIdException;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.entity.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CacheIntegrationTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private MeterRegistry registry;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User(null, "Billy", "cache@yandex.com"));
+        item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findUserById_whenCalledTwice_thenSecondCallIsServedFromCache() {
+        double hits = cacheGets(CacheConfig.USERS, "hit");
+        double misses = cacheGets(CacheConfig.USERS, "miss");
+
+        User first = userService.findUserById(owner.getId());
+        userRepository.save(new User(owner.getId(), "Изменён в обход сервиса", owner.getEmail()));
+        User second = userService.findUserById(owner.getId());
+
+        assertEquals("Billy", second.getName(), "Не равны");
+        assertSame(first, second, "Не равны");
+        assertEquals(misses + 1, cacheGets(CacheConfig.USERS, "miss"), "Не равны");
+        assertEquals(hits + 1, cacheGets(CacheConfig.USERS, "hit"), "Не равны");
+    }
+
+    @Test
+    void findItemById_whenItemIsServedFromCache_thenOwnerAndRequestIdsAreAvailable() {
+        itemService.findItemById(item.getId());
+
+        Item cached = itemService.findItemById(item.getId());
+
+        assertEquals(owner.getId(), cached.getOwner().getId(), "Не равны");
+        assertNull(cached.getRequest(), "Не равны");
+    }
+
+    @Test
+    void findItemById_whenItemIsLoadedOutsideSession_thenEqualsAndHashCodeDoNotLoadOwner() {
+        Item first = itemService.findItemById(item.getId());
+        Item second = itemService.findItemById(item.getId());
+
+        assertNotSame(first, second, "Не равны");
+        assertEquals(first, second, "Не равны");
+        assertEquals(first.hashCode(), second.hashCode(), "Не равны");
+        assertDoesNotThrow(first::toString, "Не равны");
+    }
+
+    @Test
+    void updateUser_whenUserIsCached_thenEvictUser() {
+        userService.findUserById(owner.getId());
+
+        userService.updateUser(new User(null, "Bill", null), owner.getId());
+
+        assertEquals("Bill", userService.findUserById(owner.getId()).getName(), "Не равны");
+    }
+
+    @Test
+    void deleteUser_whenItemsAndRequestsAreCached_thenEvictThem() {
+        Request request = requestRepository.save(new Request(null, "Нужна дрель", owner,
+                LocalDateTime.now().minusMinutes(1)));
+        itemService.findItemById(item.getId());
+        requestService.findRequestById(request.getId());
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(IncorrectIdException.class, () -> userService.findUserById(owner.getId()), "Не равны");
+        assertThrows(IncorrectIdException.class, () -> itemService.findItemById(item.getId()), "Не равны");
+        assertThrows(IncorrectIdException.class, () -> requestService.findRequestById(request.getId()), "Не равны");
+    }
+
+    @Test
+    void updateItem_whenItemIsCached_thenEvictItem() {
+        itemService.findItemById(item.getId());
+
+        itemService.updateItem(owner.getId(), item.getId(), new Item(null, "Дрель ударная", null, null, null, null));
+
+        assertEquals("Дрель ударная", itemService.findItemById(item.getId()).getName(), "Не равны");
+    }
+
+    @Test
+    void deleteItem_whenItemIsCached_thenEvictItem() {
+        itemService.findItemById(item.getId());
+
+        itemService.deleteItem(item.getId());
+
+        assertThrows(IncorrectIdException.class, () -> itemService.findItemById(item.getId()), "Не равны");
+    }
+
+    @Test
+    void findItemById_whenItemDoesNotExist_thenNothingIsCached() {
+        long missing = item.getId() + 1000;
+
+        assertThrows(IncorrectIdException.class, () -> itemService.findItemById(missing), "Не равны");
+        assertThrows(IncorrectIdException.class, () -> itemService.findItemById(missing), "Не равны");
+    }
+
+    private double cacheGets(String cache, String result) {
+        FunctionCounter counter = registry.find("cache.gets").tags("cache", cache, "result", result).functionCounter();
+        assertNotNull(counter, "Не равны");
+        return counter.count();
+    }
+}
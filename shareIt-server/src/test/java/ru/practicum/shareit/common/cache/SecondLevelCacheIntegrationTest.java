@@ -0,0 +1,80 @@
+package ru.practicum.shareit.common.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Вещи и пользователи, однажды загруженные по ID, берутся из второго уровня кэша Hibernate
+ * в следующих сессиях без обращения к базе данных.
+ */
+@SpringBootTest
+class SecondLevelCacheIntegrationTest {
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry registry;
+
+    private User owner;
+    private Item item;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(new User(null, "Billy", "l2cache@yandex.com"));
+        item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findById_whenEntitiesWereLoadedBefore_thenNoQueriesAreExecuted() {
+        itemRepository.findById(item.getId());
+        userRepository.findById(owner.getId());
+        statistics.clear();
+
+        Item cachedItem = itemRepository.findById(item.getId()).orElseThrow();
+        User cachedOwner = userRepository.findById(owner.getId()).orElseThrow();
+
+        assertEquals("Дрель", cachedItem.getName(), "Не равны");
+        assertEquals("Billy", cachedOwner.getName(), "Не равны");
+        assertEquals(0, statistics.getPrepareStatementCount(), "Не равны");
+        assertEquals(1, statistics.getDomainDataRegionStatistics(Item.class.getName()).getHitCount(), "Не равны");
+        assertEquals(1, statistics.getDomainDataRegionStatistics(User.class.getName()).getHitCount(), "Не равны");
+    }
+
+    @Test
+    void secondLevelCache_whenEntitiesAreReadAgain_thenRegionMetricsArePublished() {
+        itemRepository.findById(item.getId());
+        itemRepository.findById(item.getId());
+
+        FunctionCounter hits = registry.find("hibernate.second.level.cache.requests")
+                .tags("region", Item.class.getName(), "result", "hit")
+                .functionCounter();
+        assertNotNull(hits, "Не равны");
+        assertTrue(hits.count() > 0, "Не равны");
+    }
+}
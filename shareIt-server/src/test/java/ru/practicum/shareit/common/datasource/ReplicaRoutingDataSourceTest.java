@@ -0,0 +1,108 @@
+package ru.practicum.shareit.common.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Основная база и реплика - две базы H2 в памяти; в каждой таблица node с именем базы.
+ */
+class ReplicaRoutingDataSourceTest {
+    private static final String LAG_QUERY = "select seconds from lag";
+
+    private final DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1");
+    private final DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1");
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void createDatabases() {
+        new JdbcTemplate(primary).execute("create table node (name varchar); insert into node values ('primary')");
+        new JdbcTemplate(replica).execute("create table node (name varchar); insert into node values ('replica'); " +
+                "create table lag (seconds double); insert into lag values (null)");
+    }
+
+    @AfterEach
+    void dropDatabases() {
+        new JdbcTemplate(primary).execute("drop table node");
+        new JdbcTemplate(replica).execute("drop table node; drop table lag");
+    }
+
+    @Test
+    void getConnection_whenTransactionIsReadOnly_thenUseReplica() {
+        ReplicaRoutingDataSource routing = routing(List.of(replica));
+
+        assertEquals("replica", readNode(routing, true), "Не равны");
+        assertEquals("primary", readNode(routing, false), "Не равны");
+        assertEquals("primary", new JdbcTemplate(new LazyConnectionDataSourceProxy(routing))
+                .queryForObject("select name from node", String.class), "Не равны");
+        assertEquals(1, connections("replica-0"),
+                "Не равны");
+    }
+
+    @Test
+    void getConnection_whenReplicaLagsBehind_thenReadFromPrimaryUntilItCatchesUp() {
+        ReplicaRoutingDataSource routing = routing(List.of(replica));
+
+        new JdbcTemplate(replica).update("update lag set seconds = 10");
+        routing.checkReplicas();
+        assertEquals("primary", readNode(routing, true), "Не равны");
+        assertEquals(0, registry.get("shareit.datasource.replica.available").gauge().value(), "Не равны");
+
+        new JdbcTemplate(replica).update("update lag set seconds = 0.5");
+        routing.checkReplicas();
+        assertEquals("replica", readNode(routing, true), "Не равны");
+    }
+
+    @Test
+    void getConnection_whenReplicaIsUnavailable_thenReadFromPrimary() {
+        DataSource missing = new DriverManagerDataSource("jdbc:h2:mem:routing-missing;IFEXISTS=TRUE");
+
+        assertEquals("primary", readNode(routing(List.of(missing)), true), "Не равны");
+    }
+
+    @Test
+    void getConnection_whenSeveralReplicas_thenUseThemInTurn() {
+        ReplicaRoutingDataSource routing = routing(List.of(replica, replica));
+
+        readNode(routing, true);
+        readNode(routing, true);
+
+        assertEquals(1, connections("replica-0"),
+                "Не равны");
+        assertEquals(1, connections("replica-1"),
+                "Не равны");
+    }
+
+    private ReplicaRoutingDataSource routing(List<DataSource> replicas) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(1),
+                Duration.ZERO, LAG_QUERY);
+        routing.afterPropertiesSet();
+        routing.bindTo(registry);
+        return routing;
+    }
+
+    private double connections(String target) {
+        return registry.get("shareit.datasource.connections").tag("target", target).functionCounter().count();
+    }
+
+    private static String readNode(DataSource routing, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource)
+                .queryForObject("select name from node", String.class));
+    }
+}
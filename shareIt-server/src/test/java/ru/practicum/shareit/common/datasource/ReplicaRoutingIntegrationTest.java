@@ -0,0 +1,81 @@
+package ru.practicum.shareit.common.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Реплика - та же база H2 через отдельный пул: проверяется, какая база выдаёт соединения транзакциям запроса.
+ */
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.enabled=true",
+        "shareit.datasource.replica.instances[0].url=jdbc:h2:mem:shareit",
+        "shareit.datasource.replica.check-interval=0s",
+        "shareit.datasource.replica.lag-query="})
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry registry;
+
+    @AfterEach
+    void resetDb() {
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @SneakyThrows
+    @Test
+    void createRequest_whenRequestReadsAndWrites_thenEachTransactionChoosesItsDatabase() {
+        User requestor = userService.createUser(new User(null, "Billy", "replica@yandex.com"));
+        double primary = connections(ReplicaRoutingDataSource.PRIMARY);
+        double replica = connections("replica-0");
+
+        mockMvc.perform(
+                        post("/requests")
+                                .header("X-Sharer-User-Id", requestor.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"description\": \"Нужна дрель\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(primary + 1, connections(ReplicaRoutingDataSource.PRIMARY), "Не равны");
+        assertEquals(replica + 2, connections("replica-0"), "Не равны");
+    }
+
+    @Test
+    void poolMetrics_whenPoolsStartedBeforeRegistry_thenPublishConnectionMetrics() {
+        userService.findUserById(userService.createUser(new User(null, "Billy", "pools@yandex.com")).getId());
+
+        assertNotNull(registry.find("hikaricp.connections").tag("pool", "shareit-primary").gauge(), "Не равны");
+        assertNotNull(registry.find("hikaricp.connections").tag("pool", "shareit-replica-0").gauge(), "Не равны");
+        assertTrue(registry.get("hikaricp.connections.acquire").tag("pool", "shareit-primary").timer().count() > 0,
+                "Не равны");
+    }
+
+    private double connections(String target) {
+        return registry.get("shareit.datasource.connections").tag("target", target).functionCounter().count();
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricsIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry registry;
+    @Autowired
+    private UserService userService;
+
+    @SneakyThrows
+    @Test
+    void getUser_whenRequestIsHandled_thenServiceRepositoryAndQueryMetricsAreRecorded() {
+        Integer id = userService.createUser(new User(null, "Billy", "metrics@yandex.com")).getId();
+        DistributionSummary queries = DistributionSummary.builder(QueryCountInterceptor.METRIC)
+                .tags("method", "GET", "uri", "/users/{id}")
+                .register(registry);
+        long countBefore = queries.count();
+        double totalBefore = queries.totalAmount();
+
+        mockMvc.perform(get("/users/{id}", id))
+                .andExpect(status().isOk());
+
+        assertEquals(countBefore + 1, queries.count(), "Не равны");
+        assertEquals(totalBefore + 1.0, queries.totalAmount(), "Не равны");
+
+        Timer service = registry.find("shareit.service")
+                .tags("class", "ru.practicum.shareit.user.service.UserServiceImpl", "method", "findUserById")
+                .timer();
+        assertNotNull(service);
+        assertTrue(service.count() > 0);
+
+        Timer repository = registry.find("spring.data.repository.invocations")
+                .tags("repository", "UserRepository", "method", "findById")
+                .timer();
+        assertNotNull(repository);
+        assertTrue(repository.count() > 0);
+    }
+
+    @Test
+    void queryCounter_whenNotStarted_thenQueriesAreNotCounted() {
+        QueryCounter.increment();
+
+        assertEquals(0, QueryCounter.current(), "Не равны");
+    }
+}
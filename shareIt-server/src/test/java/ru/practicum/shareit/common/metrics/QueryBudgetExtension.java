@@ -0,0 +1,68 @@
+package ru.practicum.shareit.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Роняет тест @SpringBootTest, если во время него какой-либо эндпоинт превысил свой @QueryBudget.
+ * Подключается ко всем тестам автоматически (META-INF/services, junit-platform.properties).
+ */
+public class QueryBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(
+            QueryBudgetExtension.class);
+    private static final String SNAPSHOT = "snapshot";
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (isSpringBootTest(context)) {
+            context.getStore(NAMESPACE).put(SNAPSHOT, exceeded(registry(context)));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterEach(ExtensionContext context) {
+        Map<String, Double> before = context.getStore(NAMESPACE).remove(SNAPSHOT, Map.class);
+        if (before == null) {
+            return;
+        }
+        Map<String, Double> after = exceeded(registry(context));
+        String violations = after.entrySet().stream()
+                .filter(e -> e.getValue() > before.getOrDefault(e.getKey(), 0.0))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.joining(", "));
+        if (!violations.isEmpty()) {
+            fail("Превышен бюджет SQL-запросов (@QueryBudget): " + violations);
+        }
+    }
+
+    private static boolean isSpringBootTest(ExtensionContext context) {
+        return context.getTestClass()
+                .map(testClass -> AnnotatedElementUtils.hasAnnotation(testClass, SpringBootTest.class))
+                .orElse(false);
+    }
+
+    private static MeterRegistry registry(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(MeterRegistry.class);
+    }
+
+    private static Map<String, Double> exceeded(MeterRegistry registry) {
+        Map<String, Double> counts = new HashMap<>();
+        for (Counter counter : registry.find(QueryCountInterceptor.BUDGET_EXCEEDED_METRIC).counters()) {
+            counts.put(counter.getId().getTag("method") + " " + counter.getId().getTag("uri"), counter.count());
+        }
+        return counts;
+    }
+}
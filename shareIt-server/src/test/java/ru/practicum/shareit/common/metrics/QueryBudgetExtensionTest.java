@@ -0,0 +1,99 @@
+package ru.practicum.shareit.common.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет сам QueryBudgetExtension на тестовом эндпоинте с заниженным бюджетом: расширение вызывается
+ * вручную с контекстом текущего теста, и его afterEach должен уронить тест, в котором эндпоинт превысил бюджет.
+ * Ручной afterEach забирает снимок счётчиков, поэтому автоматически подключённое расширение после теста
+ * ничего не проверяет.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryBudgetExtensionTest {
+    @RegisterExtension
+    final CurrentContext currentContext = new CurrentContext();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final QueryBudgetExtension extension = new QueryBudgetExtension();
+
+    @Test
+    void afterEach_whenEndpointExceedsQueryBudget_thenTestFails() throws Exception {
+        extension.beforeEach(currentContext.context);
+
+        mockMvc.perform(get("/query-budget/over")).andExpect(status().isOk());
+
+        AssertionFailedError error = assertThrows(AssertionFailedError.class,
+                () -> extension.afterEach(currentContext.context), "Не равны");
+        assertTrue(error.getMessage().contains("GET /query-budget/over"), "Не равны");
+    }
+
+    @Test
+    void afterEach_whenEndpointKeepsQueryBudget_thenTestPasses() throws Exception {
+        extension.beforeEach(currentContext.context);
+
+        mockMvc.perform(get("/query-budget/within")).andExpect(status().isOk());
+
+        assertDoesNotThrow(() -> extension.afterEach(currentContext.context), "Не равны");
+    }
+
+    static class CurrentContext implements BeforeEachCallback {
+        private ExtensionContext context;
+
+        @Override
+        public void beforeEach(ExtensionContext context) {
+            this.context = context;
+        }
+    }
+
+    @TestConfiguration
+    static class BudgetControllerConfig {
+        @Bean
+        BudgetController budgetController(UserRepository userRepository, ItemRepository itemRepository) {
+            return new BudgetController(userRepository, itemRepository);
+        }
+    }
+
+    @RestController
+    static class BudgetController {
+        private final UserRepository userRepository;
+        private final ItemRepository itemRepository;
+
+        BudgetController(UserRepository userRepository, ItemRepository itemRepository) {
+            this.userRepository = userRepository;
+            this.itemRepository = itemRepository;
+        }
+
+        @GetMapping("/query-budget/over")
+        @QueryBudget(1)
+        public long over() {
+            return userRepository.count() + itemRepository.count();
+        }
+
+        @GetMapping("/query-budget/within")
+        @QueryBudget(2)
+        public long within() {
+            return userRepository.count() + itemRepository.count();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.common.metrics;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.entity.Comment;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.entity.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Вызывает эндпоинты со списками на данных, где у каждого элемента ответа свои связанные сущности
+ * (владелец, арендатор, запрос, отзывы). N+1 в таком ответе превышает @QueryBudget эндпоинта,
+ * и тест падает в QueryBudgetExtension.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryBudgetIntegrationTest {
+    private static final int ELEMENTS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+
+    private User owner;
+    private final List<User> bookers = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+    private final List<Request> requests = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User(null, "Владелец", "owner@budget.ru"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ELEMENTS; i++) {
+            User booker = userRepository.save(new User(null, "Арендатор " + i, "booker" + i + "@budget.ru"));
+            bookers.add(booker);
+            Request request = requestRepository.save(
+                    new Request(null, "Нужна дрель номер " + i, booker, now.minusDays(i + 1L)));
+            requests.add(request);
+            Item item = itemRepository.save(
+                    new Item(null, "Дрель " + i, "Дрель номер " + i, true, owner, request));
+            items.add(item);
+            bookings.add(bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                    BookingStatus.APPROVED)));
+            bookings.add(bookingRepository.save(new Booking(null, now.plusDays(i + 1L), now.plusDays(i + 2L), item,
+                    booker, BookingStatus.WAITING)));
+            commentRepository.save(new Comment(null, "Отличная дрель " + i, item, booker, now.minusDays(1)));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+        bookers.clear();
+        items.clear();
+        bookings.clear();
+        requests.clear();
+    }
+
+    @Test
+    void itemEndpoints_whenResponseHasManyElements_thenQueryBudgetIsKept() {
+        perform(get("/items").header(GatewayHeader.USER, owner.getId()));
+        perform(get("/items/{id}", items.get(0).getId()).header(GatewayHeader.USER, owner.getId()));
+        perform(get("/items/{id}", items.get(0).getId()).header(GatewayHeader.USER, bookers.get(0).getId()));
+        perform(get("/items/search").param("text", "дрель").header(GatewayHeader.USER, bookers.get(0).getId()));
+    }
+
+    @Test
+    void bookingEndpoints_whenResponseHasManyElements_thenQueryBudgetIsKept() {
+        for (String state : List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED")) {
+            perform(get("/bookings/owner").param("state", state).header(GatewayHeader.USER, owner.getId()));
+            perform(get("/bookings").param("state", state).header(GatewayHeader.USER, bookers.get(0).getId()));
+        }
+        perform(get("/bookings/owner").param("cursor", "").header(GatewayHeader.USER, owner.getId()));
+        perform(get("/bookings").param("cursor", "").header(GatewayHeader.USER, bookers.get(0).getId()));
+        perform(get("/bookings/{id}", bookings.get(0).getId()).header(GatewayHeader.USER, owner.getId()));
+    }
+
+    @Test
+    void requestAndUserEndpoints_whenResponseHasManyElements_thenQueryBudgetIsKept() {
+        perform(get("/requests").header(GatewayHeader.USER, bookers.get(0).getId()));
+        perform(get("/requests/all").param("size", "10").header(GatewayHeader.USER, owner.getId()));
+        perform(get("/requests/{id}", requests.get(0).getId()).header(GatewayHeader.USER, owner.getId()));
+        perform(get("/users"));
+    }
+
+    @SneakyThrows
+    private void perform(MockHttpServletRequestBuilder request) {
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(QueryCountHeaderAdvice.HEADER));
+    }
+
+    private static final class GatewayHeader {
+        static final String USER = "X-Sharer-User-Id";
+    }
+}
@@ -0,0 +1,256 @@
+package ru.practicum.shareit.common.outbox;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Фоновая отправка в тестах выключена (shareit.outbox.relay.enabled=false): события отправляются вызовом
+ * OutboxRelay.relayPending, чтобы порядок и число попыток не зависели от потока отправки. Задержка перед
+ * повторной попыткой (shareit.outbox.retry-delay=1h) истекает в тестах через makeDue.
+ */
+@SpringBootTest(properties = {"shareit.outbox.max-attempts=3", "shareit.outbox.retry-delay=1h",
+        "shareit.outbox.retry-max-delay=1h"})
+class OutboxRelayIntegrationTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private Outbox outbox;
+    @Autowired
+    private RecordingSubscriber subscriber;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void seed() {
+        outboxEventRepository.deleteAll();
+        subscriber.reset();
+        owner = userRepository.save(new User(null, "Billy", "outbox-owner@yandex.com"));
+        booker = userRepository.save(new User(null, "Jack", "outbox-booker@yandex.com"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void relayPending_whenBookingIsCreatedAndApproved_thenSubscribersReceiveEventsInOrder() {
+        Item item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+        Booking booking = bookingService.createBooking(new Booking(null, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), item, booker, BookingStatus.WAITING));
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+
+        assertTrue(subscriber.events.isEmpty(), "Не равны");
+        assertEquals(3, outboxRelay.relayPending(), "Не равны");
+
+        assertEquals(List.of(OutboxEventType.ITEM_CREATED, OutboxEventType.BOOKING_CREATED,
+                OutboxEventType.BOOKING_APPROVED), types(), "Не равны");
+        DomainEvent approved = subscriber.events.get(2);
+        assertEquals(booking.getId(), approved.getAggregateId(), "Не равны");
+        assertTrue(approved.getPayload().contains("\"status\":\"APPROVED\""), "Не равны");
+        assertTrue(approved.getPayload().contains("\"bookerId\":" + booker.getId()), "Не равны");
+        assertTrue(outboxEventRepository.findAll().stream().allMatch(e -> e.getPublished() != null), "Не равны");
+        assertEquals(0, outboxRelay.relayPending(), "Не равны");
+    }
+
+    @Test
+    void relayPending_whenEventIsDelivered_thenSubscriberRunsAfterClaimIsCommitted() {
+        itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+
+        assertEquals(1, outboxRelay.relayPending(), "Не равны");
+
+        assertEquals(List.of(false), subscriber.transactionActive, "Не равны");
+        assertEquals(List.of(true), subscriber.claimCommitted, "Не равны");
+        OutboxEvent published = outboxEventRepository.findAll().get(0);
+        assertNotNull(published.getPublished(), "Не равны");
+        assertNull(published.getNextAttemptAt(), "Не равны");
+    }
+
+    @Test
+    void relayPending_whenSubscriberFails_thenEventIsRetriedWhenDueBeforeLaterEventsOfSameItem() {
+        Item item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+        itemService.updateItem(owner.getId(), item.getId(), new Item(null, "Дрель ударная", null, null, null, null));
+        subscriber.failures = 1;
+
+        assertEquals(0, outboxRelay.relayPending(), "Не равны");
+        assertTrue(subscriber.events.isEmpty(), "Не равны");
+        OutboxEvent failed = find(OutboxEventType.ITEM_CREATED);
+        assertEquals(1, failed.getAttempts(), "Не равны");
+        assertNull(failed.getPublished(), "Не равны");
+        assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(30)), "Не равны");
+
+        assertEquals(0, outboxRelay.relayPending(), "Не равны");
+        assertTrue(subscriber.events.isEmpty(), "Не равны");
+
+        makeDue();
+        assertEquals(2, outboxRelay.relayPending(), "Не равны");
+        assertEquals(List.of(OutboxEventType.ITEM_CREATED, OutboxEventType.ITEM_UPDATED), types(), "Не равны");
+    }
+
+    @Test
+    void relayPending_whenSubscriberFailsForOneItem_thenEventsOfOtherItemsAreDelivered() {
+        Item failing = itemService.createItem(owner.getId(),
+                new Item(null, "Дрель", "Простая дрель", true, null, null));
+        Item other = itemService.createItem(owner.getId(),
+                new Item(null, "Отвертка", "Аккумуляторная отвертка", true, null, null));
+        itemService.deleteItem(other.getId());
+        subscriber.failures = 1;
+
+        assertEquals(2, outboxRelay.relayPending(), "Не равны");
+
+        assertEquals(List.of(OutboxEventType.ITEM_CREATED, OutboxEventType.ITEM_DELETED), types(), "Не равны");
+        assertTrue(subscriber.events.stream().allMatch(e -> e.getAggregateId().equals(other.getId())), "Не равны");
+        OutboxEvent failed = outboxEventRepository.findAll().stream()
+                .filter(e -> e.getAggregateId().equals(failing.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(1, failed.getAttempts(), "Не равны");
+        assertNull(failed.getPublished(), "Не равны");
+    }
+
+    @Test
+    void relayPending_whenEventFailsMaxAttempts_thenItIsSkipped() {
+        Item item = itemService.createItem(owner.getId(), new Item(null, "Дрель", "Простая дрель", true, null, null));
+        itemService.deleteItem(item.getId());
+        subscriber.failures = 3;
+
+        assertEquals(0, outboxRelay.relayPending(), "Не равны");
+        makeDue();
+        assertEquals(0, outboxRelay.relayPending(), "Не равны");
+        makeDue();
+        assertEquals(0, outboxRelay.relayPending(), "Не равны");
+        makeDue();
+        assertEquals(1, outboxRelay.relayPending(), "Не равны");
+
+        assertEquals(List.of(OutboxEventType.ITEM_DELETED), types(), "Не равны");
+        OutboxEvent skipped = find(OutboxEventType.ITEM_CREATED);
+        assertEquals(3, skipped.getAttempts(), "Не равны");
+        assertNull(skipped.getPublished(), "Не равны");
+    }
+
+    @Test
+    void cleanUp_whenEventsWerePublishedLongAgo_thenDeleteThem() {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.save(new OutboxEvent(null, OutboxEventType.ITEM_DELETED, "ITEM", 1L, "{\"id\":1}",
+                now.minusDays(30), now.minusDays(30), 0, null));
+        outboxEventRepository.save(new OutboxEvent(null, OutboxEventType.ITEM_DELETED, "ITEM", 2L, "{\"id\":2}",
+                now.minusMinutes(1), now.minusMinutes(1), 0, null));
+        outboxEventRepository.save(new OutboxEvent(null, OutboxEventType.ITEM_DELETED, "ITEM", 3L, "{\"id\":3}",
+                now.minusDays(30), null, 0, null));
+
+        assertEquals(1, outboxRelay.cleanUp(), "Не равны");
+
+        assertEquals(List.of(2L, 3L), outboxEventRepository.findAll().stream()
+                .map(OutboxEvent::getAggregateId)
+                .sorted()
+                .collect(Collectors.toList()), "Не равны");
+    }
+
+    @Test
+    void record_whenCalledOutsideTransaction_thenThrowException() {
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive(), "Не равны");
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outbox.record(OutboxEventType.ITEM_DELETED, 1L), "Не равны");
+    }
+
+    private OutboxEvent find(OutboxEventType type) {
+        return outboxEventRepository.findAll().stream()
+                .filter(e -> e.getType() == type)
+                .findFirst().orElseThrow();
+    }
+
+    /**
+     * отложенные события становятся готовыми к отправке, как если бы прошла задержка перед попыткой
+     */
+    private void makeDue() {
+        outboxEventRepository.findAll().stream()
+                .filter(e -> e.getNextAttemptAt() != null)
+                .forEach(e -> {
+                    e.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+                    outboxEventRepository.save(e);
+                });
+    }
+
+    private List<OutboxEventType> types() {
+        return subscriber.events.stream().map(DomainEvent::getType).collect(Collectors.toList());
+    }
+
+    @TestConfiguration
+    static class SubscriberConfig {
+        @Bean
+        RecordingSubscriber recordingSubscriber(OutboxEventRepository outboxEventRepository) {
+            return new RecordingSubscriber(outboxEventRepository);
+        }
+    }
+
+    static class RecordingSubscriber {
+        private final OutboxEventRepository outboxEventRepository;
+        private final List<DomainEvent> events = new CopyOnWriteArrayList<>();
+        private final List<Boolean> transactionActive = new CopyOnWriteArrayList<>();
+        private final List<Boolean> claimCommitted = new CopyOnWriteArrayList<>();
+        private volatile int failures;
+
+        RecordingSubscriber(OutboxEventRepository outboxEventRepository) {
+            this.outboxEventRepository = outboxEventRepository;
+        }
+
+        @EventListener
+        public void on(DomainEvent event) {
+            transactionActive.add(TransactionSynchronizationManager.isActualTransactionActive());
+            claimCommitted.add(outboxEventRepository.findById(event.getId())
+                    .map(e -> e.getNextAttemptAt() != null)
+                    .orElse(false));
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("Подписчик недоступен");
+            }
+            events.add(event);
+        }
+
+        void reset() {
+            events.clear();
+            transactionActive.clear();
+            claimCommitted.clear();
+            failures = 0;
+        }
+    }
+}
@@ -110,4 +110,23 @@ public class ItemControllerIntegrationTest {
                 .andExpect(result -> assertEquals(
                         ValidationException.class, Objects.requireNonNull(result.getResolvedException()).getClass()));
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void findItem_whenOwnerOfFoundItemIsDeleted_thenItemIsNotCountedInPage() {
+        User deleted = userService.createUser(new User(null, "Billy", "email55@yandex.com"));
+        User remaining = userService.createUser(new User(null, "Felix", "felix@yandex.com"));
+        itemService.createItem(deleted.getId(), new Item(null, "Перфоратор", "Мощный перфоратор", true, null, null));
+        itemService.createItem(remaining.getId(), new Item(null, "Перфоратор", "Лёгкий перфоратор", true, null, null));
+
+        userService.deleteUser(deleted.getId());
+
+        mockMvc.perform(
+                        get("/items/search")
+                                .param("text", "перфоратор")
+                                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.[0].description").value("Лёгкий перфоратор"));
+    }
+}
@@ -113,7 +113,7 @@ class ItemControllerMocMvcTest {
         Item item = createTestItem();
         Mockito.when(itemService.findAllItems(Mockito.any(), Mockito.any(), Mockito.any()))
                 .thenReturn(new PageImpl<>(List.of(item)));
-        Mockito.when(itemMapper.toItemDtoForOwner(item)).thenReturn(itemDto);
+        Mockito.when(itemMapper.toItemDtosForOwner(List.of(item))).thenReturn(List.of(itemDto));
         Mockito.when(userService.findUserById(anyInt())).thenReturn(user);
 
         String result = mockMvc.perform(
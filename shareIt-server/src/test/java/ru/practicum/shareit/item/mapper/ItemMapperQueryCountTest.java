@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.mapper;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.entity.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.entity.Comment;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.booking.enums.BookingStatus.APPROVED;
+
+/**
+ * Замер числа SQL-запросов при формировании страницы вещей владельца (GET /items).
+ * Расписание бронирований в памяти выключено, чтобы измерялись запросы к базе данных.
+ */
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.booking.interval-index.enabled=false"})
+class ItemMapperQueryCountTest {
+    private static final int ITEMS_COUNT = 20;
+
+    @Autowired
+    private ItemMapper itemMapper;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(new User(null, "Billy", "email55@yandex.com"));
+        User booker = userRepository.save(new User(null, "Felix", "felix@yandex.com"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            Item item = itemRepository.save(new Item(null, "Вещь " + i, "Описание " + i, true, owner, null));
+            bookingRepository.save(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker, APPROVED));
+            bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, APPROVED));
+            commentRepository.save(new Comment(null, "Отзыв " + i, item, booker, now));
+        }
+    }
+
+    @AfterEach
+    void resetDb() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void toItemDtosForOwner_whenPageSizeGrows_thenQueryCountStaysConstant() {
+        long queriesForOneItem = countBatchQueries(1);
+        long queriesForFiveItems = countBatchQueries(5);
+        long queriesForTwentyItems = countBatchQueries(ITEMS_COUNT);
+
+        assertEquals(3, queriesForOneItem);
+        assertEquals(queriesForOneItem, queriesForFiveItems);
+        assertEquals(queriesForOneItem, queriesForTwentyItems);
+    }
+
+    @Test
+    void toItemDtosForOwner_whenBatchIsUsed_thenResultMatchesPerItemMapping() {
+        List<Item> items = loadPage(ITEMS_COUNT);
+
+        List<ItemDto> batch = itemMapper.toItemDtosForOwner(items);
+        List<ItemDto> perItem = items.stream().map(itemMapper::toItemDtoForOwner).collect(Collectors.toList());
+
+        assertEquals(perItem.size(), batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ItemDto expected = perItem.get(i);
+            ItemDto actual = batch.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertNotNull(actual.getLastBooking());
+            assertNotNull(actual.getNextBooking());
+            assertEquals(expected.getLastBooking().getId(), actual.getLastBooking().getId());
+            assertEquals(expected.getNextBooking().getId(), actual.getNextBooking().getId());
+            assertEquals(expected.getComments(), actual.getComments());
+        }
+    }
+
+    @Test
+    void toItemDtoForOwner_whenMappedPerItem_thenQueryCountGrowsWithPageSize() {
+        List<Item> items = loadPage(ITEMS_COUNT);
+        statistics.clear();
+
+        items.forEach(itemMapper::toItemDtoForOwner);
+
+        assertTrue(statistics.getPrepareStatementCount() >= 3L * ITEMS_COUNT);
+    }
+
+    private long countBatchQueries(int pageSize) {
+        List<Item> items = loadPage(pageSize);
+        statistics.clear();
+        itemMapper.toItemDtosForOwner(items);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Item> loadPage(int pageSize) {
+        return itemRepository.findByOwnerIdOrderByIdAsc(owner.getId(), PageRequest.of(0, pageSize)).getContent();
+    }
+}
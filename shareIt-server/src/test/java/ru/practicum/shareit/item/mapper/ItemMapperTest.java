@@ -16,6 +16,7 @@ import ru.practicum.shareit.user.entity.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -116,6 +117,41 @@ class ItemMapperTest {
         assertEquals(expectedItemDto, actualItemDto, "Не равны");
     }
 
+    @Test
+    void toItemDtosForOwner_whenItemsAreNotEmpty_thenEnrichItemsByOneBatchCall() {
+        User owner = new User(1, "Billy", "email55@yandex.com");
+        Item item1 = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        Item item2 = new Item(2L, "Отвертка", "Незаменимая вещь", true, owner, null);
+        BookingDtoForOwner lastBookingDtoForOwner = new BookingDtoForOwner(1L, LocalDateTime.now().minusMinutes(20),
+                LocalDateTime.now().minusMinutes(10), 3);
+        BookingDtoForOwner nextBookingDtoForOwner = new BookingDtoForOwner(2L, LocalDateTime.now().plusMinutes(20),
+                LocalDateTime.now().plusMinutes(40), 3);
+        Mockito.when(itemService.findLastBookingsOfItems(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, lastBookingDtoForOwner));
+        Mockito.when(itemService.findNextBookingsOfItems(List.of(1L, 2L)))
+                .thenReturn(Map.of(2L, nextBookingDtoForOwner));
+        Mockito.when(itemService.findAllCommentsByItemIds(List.of(1L, 2L))).thenReturn(Map.of());
+        List<ItemDto> expectedList = List.of(
+                new ItemDto(1L, "Дрель", "Простая дрель", true, 1,
+                        null, lastBookingDtoForOwner, null, List.of()),
+                new ItemDto(2L, "Отвертка", "Незаменимая вещь", true, 1,
+                        null, null, nextBookingDtoForOwner, List.of()));
+
+        List<ItemDto> actualList = itemMapper.toItemDtosForOwner(List.of(item1, item2));
+
+        assertEquals(expectedList, actualList, "Не равны");
+        Mockito.verify(itemService, Mockito.never()).findLastBookingsOfItem(Mockito.anyLong());
+        Mockito.verify(itemService, Mockito.never()).findNextBookingsOfItem(Mockito.anyLong());
+    }
+
+    @Test
+    void toItemDtosForOwner_whenItemsAreEmpty_thenReturnEmptyList() {
+        List<ItemDto> actualList = itemMapper.toItemDtosForOwner(List.of());
+
+        assertEquals(List.of(), actualList, "Не равны");
+        Mockito.verifyNoInteractions(itemService);
+    }
+
     @Test
     void toItemDtoForOwner_whenItemIsNull_thenReturnNull() {
         ItemDto expectedItemDto = null;
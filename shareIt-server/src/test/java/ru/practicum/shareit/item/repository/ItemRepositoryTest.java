@@ -8,9 +8,12 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.request.entity.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,6 +24,8 @@ class ItemRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private RequestRepository requestRepository;
 
     @BeforeEach
     private void addItems() {
@@ -50,6 +55,16 @@ class ItemRepositoryTest {
         assertEquals("Дрель", newPage.getContent().get(0).getName());
     }
 
+    @Test
+    void findInNameAndDescription_whenSeveralItemsMatch_thenPagesAreOrderedById() {
+        Page<Item> firstPage = itemRepository.findInNameAndDescription("р", PageRequest.of(0, 1));
+        Page<Item> secondPage = itemRepository.findInNameAndDescription("р", PageRequest.of(1, 1));
+
+        assertEquals(2, firstPage.getTotalElements());
+        assertEquals("Дрель", firstPage.getContent().get(0).getName());
+        assertEquals("Отвертка", secondPage.getContent().get(0).getName());
+    }
+
     @Test
     void findByOwnerIdOrderByIdAsc_whenIdIsCorrect_thenListSizeIsOne() {
         Page<Item> newPage = itemRepository.findByOwnerIdOrderByIdAsc(
@@ -59,11 +74,27 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findByRequestNotNullOrderByIdAsc_whenAllRequestsIdAreNull_thenListIsZero() {
-        List<Item> expectedList = itemRepository.findByRequestNotNullOrderByIdAsc(1);
+    void findAllByRequest_IdIn_whenAllRequestsIdAreNull_thenListIsZero() {
+        List<Item> expectedList = itemRepository.findAllByRequest_IdIn(List.of(1L));
         assertEquals(0, expectedList.size());
     }
 
+    @Test
+    void findAllByRequest_IdIn_whenItemsAnswerRequests_thenReturnOnlyItemsOfGivenRequests() {
+        User requestor = userRepository.save(new User(null, "Felix", "felix@yandex.com"));
+        Request request1 = requestRepository.save(new Request(null, "Нужна пила", requestor, LocalDateTime.now()));
+        Request request2 = requestRepository.save(new Request(null, "Нужен молоток", requestor, LocalDateTime.now()));
+        User owner = userRepository.findAll().get(0);
+        Item saw = itemRepository.save(new Item(null, "Пила", "Ручная пила", true, owner, request1));
+        itemRepository.save(new Item(null, "Молоток", "Большой молоток", true, owner, request2));
+
+        List<Item> actualList = itemRepository.findAllByRequest_IdIn(List.of(request1.getId()));
+
+        assertEquals(1, actualList.size());
+        assertEquals(saw.getId(), actualList.get(0).getId());
+        assertEquals(request1.getId(), actualList.get(0).getRequest().getId());
+    }
+
     @AfterEach
     private void deleteItems() {
         itemRepository.deleteAll();
@@ -4,24 +4,31 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.entity.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.common.outbox.Outbox;
 import ru.practicum.shareit.exception.IncorrectIdException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.entity.Comment;
 import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
 import ru.practicum.shareit.request.entity.Request;
 import ru.practicum.shareit.user.entity.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +47,12 @@ class ItemServiceImplTest {
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private Outbox outbox;
 
     @Captor
     private ArgumentCaptor<Item> itemArgumentCaptor;
@@ -81,14 +94,25 @@ class ItemServiceImplTest {
     }
 
     @Test
-    void findAllItemsByOwnerAndRequest_whenRequestNotNullAndOwnerIsCorrect_theReturnListOfItemsSize2() {
-        List<Item> expectedList = List.of(item1, item2);
-        Mockito.when(itemRepository.findByRequestNotNullOrderByIdAsc((anyInt()))).thenReturn(expectedList);
-
-        List<Item> actualList = itemService.findAllItemsByOwnerAndRequest(user.getId());
+    void findAllItemsByRequestIds_whenItemsAnswerRequests_thenReturnItemsGroupedByRequestId() {
+        Request request1 = new Request(1L, "Нужна дрель", booker, LocalDateTime.now());
+        Request request2 = new Request(2L, "Нужна отвертка", booker, LocalDateTime.now());
+        Item answer1 = new Item(3L, "Дрель", "Простая дрель", true, user, request1);
+        Item answer2 = new Item(4L, "Отвертка", "Незаменимая вещь", true, user, request2);
+        Item answer3 = new Item(5L, "Дрель ударная", "Мощная дрель", true, user, request1);
+        Mockito.when(itemRepository.findAllByRequest_IdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(answer1, answer2, answer3));
+
+        Map<Long, List<Item>> actual = itemService.findAllItemsByRequestIds(List.of(1L, 2L));
+
+        assertEquals(List.of(answer1, answer3), actual.get(1L), "Не равны");
+        assertEquals(List.of(answer2), actual.get(2L), "Не равны");
+    }
 
-        assertEquals(2, actualList.size(), "Не равны");
-        assertIterableEquals(expectedList, actualList, "Не равны");
+    @Test
+    void findAllItemsByRequestIds_whenRequestIdsAreEmpty_thenRepositoryIsNotCalled() {
+        assertTrue(itemService.findAllItemsByRequestIds(List.of()).isEmpty());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
@@ -114,6 +138,36 @@ class ItemServiceImplTest {
         assertIterableEquals(expectedList, actualList, "Не равны");
     }
 
+    @Test
+    void findItem_whenIndexCanServeQuery_thenLoadPageOfIndexedItems() {
+        Mockito.when(itemSearchIndex.canServe("дрель")).thenReturn(true);
+        Mockito.when(itemSearchIndex.search("дрель")).thenReturn(new long[]{1L, 2L, 5L});
+        Mockito.when(itemRepository.findAllById(List.of(5L))).thenReturn(List.of());
+        Mockito.when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(item2, item1));
+
+        Page<Item> firstPage = itemService.findItem("ДрЕль", 0, 2);
+        Page<Item> secondPage = itemService.findItem("ДрЕль", 2, 2);
+
+        assertIterableEquals(List.of(item1, item2), firstPage.getContent(), "Не равны");
+        assertEquals(3, firstPage.getTotalElements(), "Не равны");
+        assertTrue(secondPage.getContent().isEmpty());
+        verify(itemRepository, never()).findInNameAndDescription(anyString(), Mockito.any());
+    }
+
+    @Test
+    void findItem_whenPgTrgmSearchIsSelected_thenSearchInDatabaseEvenIfIndexCanServeQuery() {
+        ReflectionTestUtils.setField(itemService, "searchDatabase", "pg-trgm");
+        Mockito.lenient().when(itemSearchIndex.canServe("дрель")).thenReturn(true);
+        Mockito.when(itemRepository.findInNameAndDescription(anyString(), Mockito.any()))
+                .thenReturn(new PageImpl<>(List.of(item1)));
+
+        List<Item> actualList = itemService.findItem("ДрЕль", 0, 10).getContent();
+
+        assertIterableEquals(List.of(item1), actualList, "Не равны");
+        verify(itemRepository).findInNameAndDescription(Mockito.eq("дрель"), Mockito.any());
+        verify(itemSearchIndex, never()).search(anyString());
+    }
+
     @Test
     void createItem_whenItemAndUserAreValid_thenReturnItem() {
         Item expectedItem = item1;
@@ -124,6 +178,7 @@ class ItemServiceImplTest {
 
         assertEquals(expectedItem, actualItem, "Не равны");
         verify(itemRepository).save(expectedItem);
+        verify(itemSearchIndex).index(expectedItem);
     }
 
     @Test
@@ -277,81 +332,113 @@ class ItemServiceImplTest {
 
     @Test
     void findLastBookingsOfItem_whenBookingsAreValid_thenReturnLastBooking() {
-        List<Booking> bookingsOfItem = Arrays.asList(booking1, booking2);
-        BookingDtoForOwner expectedBookingDtoForOwner = new BookingDtoForOwner(
-                booking1.getId(), booking1.getStart(), booking1.getEnd(), booking1.getBooker().getId());
-        when(bookingRepository.findAllBookingsByItem_Id(anyLong())).thenReturn(bookingsOfItem);
+        BookingShort bookingShort = new BookingShort(booking1.getId(), booking1.getStart(), booking1.getEnd(),
+                booker.getId(), item1.getId());
+        when(bookingRepository.findLastBookingOfItem(eq(item1.getId()), eq(APPROVED), any(), any()))
+                .thenReturn(List.of(bookingShort));
 
         BookingDtoForOwner lastBooking = itemService.findLastBookingsOfItem(item1.getId());
 
-        assertEquals(expectedBookingDtoForOwner.getId(), lastBooking.getId(), "Не равны");
-        assertEquals(expectedBookingDtoForOwner.getStart(), lastBooking.getStart(), "Не равны");
-        assertEquals(expectedBookingDtoForOwner.getEnd(), lastBooking.getEnd(), "Не равны");
-        assertEquals(expectedBookingDtoForOwner.getBookerId(), lastBooking.getBookerId(), "Не равны");
+        assertEquals(booking1.getId(), lastBooking.getId(), "Не равны");
+        assertEquals(booking1.getStart(), lastBooking.getStart(), "Не равны");
+        assertEquals(booking1.getEnd(), lastBooking.getEnd(), "Не равны");
+        assertEquals(booking1.getBooker().getId(), lastBooking.getBookerId(), "Не равны");
     }
 
     @Test
-    void findLastBookingsOfItem_whenStartIdBeforeNowAndEndIsAfterNow_thenReturnLastBooking() {
-        booking1.setStart(LocalDateTime.now().minusMinutes(10));
-        booking1.setEnd(LocalDateTime.now().plusMinutes(10));
-        List<Booking> bookingsOfItem = Arrays.asList(booking1, booking2);
-        BookingDtoForOwner expectedBookingDtoForOwner = new BookingDtoForOwner(
-                booking2.getId(), booking2.getStart(), booking2.getEnd(), booking2.getBooker().getId());
-        when(bookingRepository.findAllBookingsByItem_Id(anyLong())).thenReturn(bookingsOfItem);
+    void findLastBookingsOfItem_whenLastBookingIsNull_thenReturnNull() {
+        when(bookingRepository.findLastBookingOfItem(anyLong(), eq(APPROVED), any(), any())).thenReturn(List.of());
 
         BookingDtoForOwner lastBooking = itemService.findLastBookingsOfItem(item1.getId());
 
-        assertEquals(expectedBookingDtoForOwner.getId(), lastBooking.getId(), "Не равны");
-        assertEquals(expectedBookingDtoForOwner.getStart(), lastBooking.getStart(), "Не равны");
-        assertEquals(expectedBookingDtoForOwner.getEnd(), lastBooking.getEnd(), "Не равны");
-        assertEquals(expectedBookingDtoForOwner.getBookerId(), lastBooking.getBookerId(), "Не равны");
+        assertNull(lastBooking, "Не равны");
     }
 
     @Test
-    void findLastBookingsOfItem_whenLastBookingIsNull_thenReturnNull() {
-        booking1.setStart(LocalDateTime.now().plusMinutes(10));
-        booking1.setEnd(LocalDateTime.now().plusMinutes(20));
-        booking2.setStart(LocalDateTime.now().plusMinutes(30));
-        booking2.setEnd(LocalDateTime.now().plusMinutes(40));
-        List<Booking> bookingsOfItem = Arrays.asList(booking1, booking2);
-        when(bookingRepository.findAllBookingsByItem_Id(anyLong())).thenReturn(bookingsOfItem);
-
-        BookingDtoForOwner lastBooking = itemService.findLastBookingsOfItem(item1.getId());
+    void findLastBookingsOfItem_whenCalled_thenRequestOnlyOneRow() {
+        ArgumentCaptor<Pageable> pageCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(bookingRepository.findLastBookingOfItem(anyLong(), eq(APPROVED), any(), pageCaptor.capture()))
+                .thenReturn(List.of());
 
-        assertNull(lastBooking, "Не равны");
+        itemService.findLastBookingsOfItem(item1.getId());
 
+        assertEquals(1, pageCaptor.getValue().getPageSize(), "Не равны");
     }
 
     @Test
     void findNextBookingsOfItem_whenBookingsAreValid_thenReturnNextBooking() {
-        Item item = new Item(1L, "Дрель", "Простая дрель", true, user, null);
-        Booking booking1 = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusMinutes(20))
-                .end(LocalDateTime.now().plusMinutes(40))
-                .item(item)
-                .booker(booker)
-                .status(APPROVED)
-                .build();
-        Booking booking2 = Booking.builder()
-                .id(2L)
-                .start(LocalDateTime.now().plusMinutes(60))
-                .end(LocalDateTime.now().plusMinutes(120))
-                .item(item)
-                .booker(booker)
-                .status(APPROVED)
-                .build();
-        List<Booking> bookingsOfItem = Arrays.asList(booking1, booking2);
-        BookingDtoForOwner expectedBookingDtoForOwner = new BookingDtoForOwner(
-                booking1.getId(), booking1.getStart(), booking1.getEnd(), booking1.getBooker().getId());
-        when(bookingRepository.findAllBookingsByItem_Id(anyLong())).thenReturn(bookingsOfItem);
+        LocalDateTime start = LocalDateTime.now().plusMinutes(20);
+        LocalDateTime end = LocalDateTime.now().plusMinutes(40);
+        BookingShort bookingShort = new BookingShort(1L, start, end, booker.getId(), item1.getId());
+        when(bookingRepository.findNextBookingOfItem(eq(item1.getId()), eq(APPROVED), any(), any()))
+                .thenReturn(List.of(bookingShort));
+
+        BookingDtoForOwner nextBooking = itemService.findNextBookingsOfItem(item1.getId());
+
+        assertEquals(1L, nextBooking.getId(), "Не равны");
+        assertEquals(start, nextBooking.getStart(), "Не равны");
+        assertEquals(end, nextBooking.getEnd(), "Не равны");
+        assertEquals(booker.getId(), nextBooking.getBookerId(), "Не равны");
+    }
+
+    @Test
+    void findLastBookingsOfItems_whenBookingsExist_thenReturnMapByItemId() {
+        BookingShort bookingShort = new BookingShort(booking1.getId(), booking1.getStart(), booking1.getEnd(),
+                booker.getId(), item1.getId());
+        when(bookingRepository.findLastBookingsOfItems(eq(List.of(1L, 2L)), eq(APPROVED), any()))
+                .thenReturn(List.of(bookingShort));
+
+        Map<Long, BookingDtoForOwner> lastBookings = itemService.findLastBookingsOfItems(List.of(1L, 2L));
+
+        assertEquals(1, lastBookings.size(), "Не равны");
+        assertEquals(booking1.getId(), lastBookings.get(item1.getId()).getId(), "Не равны");
+        assertEquals(booker.getId(), lastBookings.get(item1.getId()).getBookerId(), "Не равны");
+        assertNull(lastBookings.get(item2.getId()), "Не равны");
+    }
+
+    @Test
+    void findLastBookingsOfItems_whenIndexIsEnabled_thenReturnBookingsFromIndexWithoutQuery() {
+        BookingShort bookingShort = new BookingShort(booking1.getId(), booking1.getStart(), booking1.getEnd(),
+                booker.getId(), item1.getId());
+        when(bookingIntervalIndex.isEnabled()).thenReturn(true);
+        when(bookingIntervalIndex.findLastApproved(eq(List.of(1L, 2L)), any()))
+                .thenReturn(Map.of(item1.getId(), bookingShort));
+
+        Map<Long, BookingDtoForOwner> lastBookings = itemService.findLastBookingsOfItems(List.of(1L, 2L));
+
+        assertEquals(1, lastBookings.size(), "Не равны");
+        assertEquals(booking1.getId(), lastBookings.get(item1.getId()).getId(), "Не равны");
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void findNextBookingsOfItem_whenIndexIsEnabledAndNoNextBooking_thenReturnNull() {
+        when(bookingIntervalIndex.isEnabled()).thenReturn(true);
+        when(bookingIntervalIndex.findNextApproved(eq(List.of(item1.getId())), any())).thenReturn(Map.of());
+
+        assertNull(itemService.findNextBookingsOfItem(item1.getId()), "Не равны");
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void findNextBookingsOfItems_whenItemIdsAreEmpty_thenReturnEmptyMapWithoutQuery() {
+        Map<Long, BookingDtoForOwner> nextBookings = itemService.findNextBookingsOfItems(List.of());
+
+        assertTrue(nextBookings.isEmpty(), "Не равны");
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void findAllCommentsByItemIds_whenCommentsExist_thenGroupByItemId() {
+        User author = new User(2, "Felix", "felix@yandex.com");
+        Comment comment1 = new Comment(1L, "Add comment1 from user", item1, author, LocalDateTime.now());
+        Comment comment2 = new Comment(2L, "Add comment2 from user", item2, author, LocalDateTime.now());
+        Mockito.when(commentRepository.findAllByItem_IdIn(List.of(1L, 2L))).thenReturn(List.of(comment1, comment2));
 
-        BookingDtoForOwner nextBooking = itemService.findNextBookingsOfItem(item.getId());
+        Map<Long, List<Comment>> actualMap = itemService.findAllCommentsByItemIds(List.of(1L, 2L));
 
-        assertEquals(expectedBookingDtoForOwner.getId(), nextBooking.getId(), "Не равны");
-        assertEquals(expectedBookingDtoForOwner.getStart(), nextBooking.getStart(), "Не равны");
-        assertEquals(expectedBookingDtoForOwner.getEnd(), nextBooking.getEnd(), "Не равны");
-        assertEquals(expectedBookingDtoForOwner.getBookerId(), nextBooking.getBookerId(), "Не равны");
+        assertEquals(List.of(comment1), actualMap.get(item1.getId()), "Не равны");
+        assertEquals(List.of(comment2), actualMap.get(item2.getId()), "Не равны");
     }
 
     @Test
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.mockito.stubbing.Answer;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Перед сохранением вещи сервисом её изменяет и фиксирует другой поток, как параллельный PATCH-запрос.
+ * Сервис должен повторить обновление на свежих данных, а при постоянных конфликтах ответить 409.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemServiceOptimisticLockingTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MockMvc mockMvc;
+    @SpyBean
+    private ItemRepository itemRepository;
+
+    private User owner;
+    private Item item;
+    private final AtomicInteger serviceSaves = new AtomicInteger();
+
+    @BeforeEach
+    void seed() {
+        owner = userRepository.save(new User(null, "Billy", "email55@yandex.com"));
+        item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reset(itemRepository);
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void updateItem_whenItemIsChangedConcurrentlyOnce_thenRetryAndKeepBothChanges() {
+        interfereWithServiceSaves(1);
+
+        itemService.updateItem(owner.getId(), item.getId(), new Item(null, "Дрель ударная", null, null, null, null));
+
+        Item actualItem = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals("Дрель ударная", actualItem.getName(), "Не равны");
+        assertEquals("Изменено параллельно 1", actualItem.getDescription(), "Не равны");
+        assertEquals(2L, actualItem.getVersion(), "Не равны");
+        assertEquals(2, serviceSaves.get(), "Не равны");
+    }
+
+    @SneakyThrows
+    @Test
+    void updateItem_whenItemIsChangedConcurrentlyOnEveryAttempt_thenConflict() {
+        interfereWithServiceSaves(Integer.MAX_VALUE);
+
+        mockMvc.perform(
+                        patch("/items/{id}", item.getId())
+                                .header("X-Sharer-User-Id", owner.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\": \"Дрель ударная\"}"))
+                .andExpect(status().isConflict());
+
+        assertEquals(3, serviceSaves.get(), "Не равны");
+    }
+
+    /**
+     * перед каждым из первых times сохранений вещи в текущем потоке изменяет её в другом потоке
+     */
+    private void interfereWithServiceSaves(int times) {
+        Thread serviceThread = Thread.currentThread();
+        Answer<?> realMethod = mockingDetails(itemRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            if (Thread.currentThread() == serviceThread) {
+                int attempt = serviceSaves.incrementAndGet();
+                if (attempt <= times) {
+                    CompletableFuture.runAsync(() -> {
+                        Item concurrent = itemRepository.findById(item.getId()).orElseThrow();
+                        concurrent.setDescription("Изменено параллельно " + attempt);
+                        itemRepository.save(concurrent);
+                    }).get(5, TimeUnit.SECONDS);
+                }
+            }
+            return realMethod.answer(invocation);
+        }).when(itemRepository).save(any(Item.class));
+    }
+}
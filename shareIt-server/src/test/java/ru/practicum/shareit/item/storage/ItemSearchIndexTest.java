@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemSearchShort;
+import ru.practicum.shareit.item.entity.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.entity.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex index;
+
+    User user = new User(1, "Billy", "email55@yandex.com");
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(itemRepository, true);
+        Mockito.when(itemRepository.findAvailableItemsAfter(anyLong(), any())).thenReturn(List.of(
+                new ItemSearchShort(1L, "Дрель", "Простая дрель"),
+                new ItemSearchShort(2L, "Отвертка", "Аккумуляторная отвертка"),
+                new ItemSearchShort(3L, "Дрель ударная", "Мощная")));
+        index.rebuild();
+    }
+
+    @Test
+    void search_whenTextIsInNameOrDescription_thenReturnSortedIds() {
+        assertArrayEquals(new long[]{1L, 3L}, index.search("дрель"), "Не равны");
+        assertArrayEquals(new long[]{2L}, index.search("аккум"), "Не равны");
+        assertArrayEquals(new long[]{3L}, index.search("щна"), "Не равны");
+    }
+
+    @Test
+    void search_whenAllTrigramsMatchButSubstringIsAbsent_thenReturnEmpty() {
+        assertArrayEquals(new long[0], index.search("дрельдрель"), "Не равны");
+        assertArrayEquals(new long[0], index.search("пила"), "Не равны");
+    }
+
+    @Test
+    void search_whenTextSpansNameAndDescription_thenReturnEmpty() {
+        assertArrayEquals(new long[0], index.search("дрельпрос"), "Не равны");
+    }
+
+    @Test
+    void index_whenItemBecomesUnavailable_thenRemoveItFromResults() {
+        index.index(new Item(1L, "Дрель", "Простая дрель", false, user, null));
+
+        assertArrayEquals(new long[]{3L}, index.search("дрель"), "Не равны");
+    }
+
+    @Test
+    void index_whenItemIsRenamed_thenSearchByNewName() {
+        index.index(new Item(4L, "Пила", "Ручная", true, user, null));
+        index.index(new Item(2L, "Шуруповерт", "Аккумуляторный", true, user, null));
+
+        assertArrayEquals(new long[]{4L}, index.search("пил"), "Не равны");
+        assertArrayEquals(new long[0], index.search("отвертка"), "Не равны");
+        assertArrayEquals(new long[]{2L}, index.search("шуруп"), "Не равны");
+    }
+
+    @Test
+    void delete_whenItemIsDeleted_thenRemoveItFromResults() {
+        index.delete(3L);
+
+        assertArrayEquals(new long[]{1L}, index.search("дрель"), "Не равны");
+    }
+
+    @Test
+    void canServe_whenQueryIsShortOrHasLikeWildcards_thenReturnFalse() {
+        assertTrue(index.canServe("дре"));
+        assertFalse(index.canServe("др"));
+        assertFalse(index.canServe("др%ль"));
+        assertFalse(index.canServe("др_ль"));
+    }
+
+    @Test
+    void canServe_whenIndexIsDisabled_thenReturnFalse() {
+        ItemSearchIndex disabled = new ItemSearchIndex(itemRepository, false);
+        disabled.rebuild();
+
+        assertFalse(disabled.canServe("дрель"));
+    }
+}
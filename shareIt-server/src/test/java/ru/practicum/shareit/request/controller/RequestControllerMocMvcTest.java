@@ -101,7 +101,7 @@ class RequestControllerMocMvcTest {
         RequestDto requestDto = createTestRequestDto();
         Request request = createTestRequest();
         Mockito.when(userService.findUserById(Mockito.any())).thenReturn(user);
-        Mockito.when(requestMapper.toRequestDto(Mockito.any())).thenReturn(requestDto);
+        Mockito.when(requestMapper.toRequestDtos(Mockito.any())).thenReturn(List.of(requestDto));
         Mockito.when(requestService.findAllRequestsByRequestor_id(anyInt()))
                 .thenReturn(List.of(request));
 
@@ -149,7 +149,7 @@ class RequestControllerMocMvcTest {
         Request request = createTestRequest();
 
         Mockito.when(userService.findUserById(Mockito.any())).thenReturn(user);
-        Mockito.when(requestMapper.toRequestDto(Mockito.any())).thenReturn(requestDto);
+        Mockito.when(requestMapper.toRequestDtos(Mockito.any())).thenReturn(List.of(requestDto));
         Mockito.when(requestService.findAllRequestsPageAble(anyInt(), anyInt(), anyInt()))
                 .thenReturn(new PageImpl<>(List.of(request)));
 
@@ -174,7 +174,7 @@ class RequestControllerMocMvcTest {
         RequestDto requestDto = createTestRequestDto();
         Request request = createTestRequest();
         Mockito.when(userService.findUserById(Mockito.any())).thenReturn(null);
-        Mockito.when(requestMapper.toRequestDto(Mockito.any())).thenReturn(requestDto);
+        Mockito.when(requestMapper.toRequestDtos(Mockito.any())).thenReturn(List.of(requestDto));
         Mockito.when(requestService.findAllRequestsPageAble(anyInt(), anyInt(), anyInt()))
                 .thenReturn(new PageImpl<>(List.of(request)));
 
@@ -194,7 +194,7 @@ class RequestControllerMocMvcTest {
         RequestDto requestDto = createTestRequestDto();
         Request request = createTestRequest();
         Mockito.when(userService.findUserById(Mockito.any())).thenReturn(user);
-        Mockito.when(requestMapper.toRequestDto(Mockito.any())).thenReturn(requestDto);
+        Mockito.when(requestMapper.toRequestDtos(Mockito.any())).thenReturn(List.of(requestDto));
         Mockito.when(requestService.findAllRequestsPageAble(anyInt(), anyInt(), anyInt()))
                 .thenReturn(new PageImpl<>(List.of(request)));
 
@@ -215,7 +215,7 @@ class RequestControllerMocMvcTest {
         RequestDto requestDto = createTestRequestDto();
         Request request = createTestRequest();
         Mockito.when(userService.findUserById(Mockito.any())).thenReturn(user);
-        Mockito.when(requestMapper.toRequestDto(Mockito.any())).thenReturn(requestDto);
+        Mockito.when(requestMapper.toRequestDtos(Mockito.any())).thenReturn(List.of(requestDto));
         Mockito.when(requestService.findAllRequestsPageAble(anyInt(), anyInt(), anyInt()))
                 .thenReturn(new PageImpl<>(List.of(request)));
 
@@ -6,6 +6,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.entity.Item;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.IncomingRequestDto;
@@ -16,7 +18,7 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -70,27 +72,40 @@ class RequestMapperTest {
 
     @Test
     void toRequestDto_whenRequestIsValid_thenReturnRequestDto() {
-        Mockito.when(itemService.findAllItemsByOwnerAndRequest(anyInt())).thenReturn(List.of());
+        Mockito.when(itemService.findAllItemsByRequestIds(List.of(request.getId()))).thenReturn(Map.of());
 
         RequestDto actualRequestDto = requestMapper.toRequestDto(request);
 
         assertEquals(requestDto, actualRequestDto, "Не равны");
     }
 
-    public RequestDto toRequestDto(Request request) {
-        if (request == null) {
-            return null;
-        }
-        return new RequestDto(
-                request.getId(),
-                request.getDescription(),
-                request.getCreated(),
-                itemService.findAllItemsByOwnerAndRequest(request.getRequestor().getId())
-                        .stream()
-                        .map(itemMapper::toItemDtoForRequest)
-                        .collect(Collectors.toList()));
+    @Test
+    void toRequestDtos_whenRequestsHaveItems_thenItemsAreLoadedOnceAndGroupedByRequest() {
+        Request otherRequest = Request.builder()
+                .id(2L)
+                .description("Нужна дрель")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build();
+        Item item = new Item(5L, "Дрель", "Простая дрель", true, requestor, otherRequest);
+        ItemDto itemDto = ItemDto.builder().id(5L).name("Дрель").description("Простая дрель").available(true)
+                .requestId(2L).build();
+        Mockito.when(itemService.findAllItemsByRequestIds(List.of(1L, 2L))).thenReturn(Map.of(2L, List.of(item)));
+        Mockito.when(itemMapper.toItemDtoForRequest(item)).thenReturn(itemDto);
+
+        List<RequestDto> actualList = requestMapper.toRequestDtos(List.of(request, otherRequest));
+
+        assertEquals(2, actualList.size(), "Не равны");
+        assertEquals(requestDto, actualList.get(0), "Не равны");
+        assertEquals(List.of(itemDto), actualList.get(1).getItems(), "Не равны");
+        Mockito.verify(itemService, Mockito.times(1)).findAllItemsByRequestIds(Mockito.any());
     }
 
+    @Test
+    void toRequestDtos_whenRequestsAreEmpty_thenReturnEmptyList() {
+        assertEquals(List.of(), requestMapper.toRequestDtos(List.of()), "Не равны");
+        Mockito.verifyNoInteractions(itemService);
+    }
 
     @Test
     void toRequestDto_whenRequestIsNull_thenReturnNull() {
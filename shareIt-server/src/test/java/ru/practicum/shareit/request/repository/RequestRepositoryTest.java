@@ -57,4 +57,13 @@ class RequestRepositoryTest {
         assertEquals(1, newPage.getContent().size());
         assertEquals("Нужна модель Солнечной системы", newPage.getContent().get(0).getDescription());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllRequestsPageable_whenPageIsBeyondContent_thenTotalIsCounted() {
+        Page<Request> farPage = requestRepository.findAllRequestsPageable(userRepository.findAll().get(0).getId(),
+                PageRequest.of(5, 1));
+
+        assertEquals(0, farPage.getContent().size());
+        assertEquals(1, farPage.getTotalElements(), "Не равны");
+    }
+}
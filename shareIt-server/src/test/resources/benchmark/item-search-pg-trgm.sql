@@ -0,0 +1,48 @@
+-- Сравнение поиска вещей /items/search без индексов и с индексами pg_trgm на таблице из 1 000 000 вещей.
+-- Запуск на базе после миграций Flyway (db/migration):
+--   psql -h localhost -p 6541 -U "Andrey 14" -d shareit -f item-search-pg-trgm.sql
+-- Скрипт удаляет данные таблиц users и items.
+
+\timing on
+
+TRUNCATE comments, bookings, items, requests, users RESTART IDENTITY;
+DROP INDEX IF EXISTS idx_items_name_trgm;
+DROP INDEX IF EXISTS idx_items_description_trgm;
+
+INSERT INTO users (name, email) VALUES ('Bench', 'bench@yandex.com');
+
+INSERT INTO items (name, description, available, owner_id)
+SELECT 'Вещь ' || md5(g::text),
+       'Описание ' || md5((g * 7)::text) || CASE WHEN g % 10000 = 0 THEN ' дрель' ELSE '' END,
+       g % 5 <> 0,
+       1
+FROM generate_series(1, 1000000) AS g;
+
+ANALYZE items;
+
+-- 1. Без индексов: последовательное сканирование (Seq Scan on items)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i WHERE i.available = true AND
+    (lower(i.name) LIKE '%' || 'дрель' || '%' OR lower(i.description) LIKE '%' || 'дрель' || '%')
+ORDER BY i.id LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM items i WHERE i.available = true AND
+    (lower(i.name) LIKE '%' || 'дрель' || '%' OR lower(i.description) LIKE '%' || 'дрель' || '%');
+
+-- 2. С индексами из миграции db/migration/postgresql/V3__item_search_trgm.sql: Bitmap Index Scan по idx_items_name_trgm и idx_items_description_trgm
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm
+    ON items USING gin (lower(name) gin_trgm_ops) WHERE available;
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm
+    ON items USING gin (lower(description) gin_trgm_ops) WHERE available;
+ANALYZE items;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i WHERE i.available = true AND
+    (lower(i.name) LIKE '%' || 'дрель' || '%' OR lower(i.description) LIKE '%' || 'дрель' || '%')
+ORDER BY i.id LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM items i WHERE i.available = true AND
+    (lower(i.name) LIKE '%' || 'дрель' || '%' OR lower(i.description) LIKE '%' || 'дрель' || '%');